@@ -0,0 +1,65 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.World;
+
+/** Measures one full World.step() with each broadphase, with and without merged tiles, on the real levels and a synthetic level of 10,000 entities */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BroadphaseBenchmark {
+
+	@Param({"level1", "level2", "synthetic10k"})
+	public String scene;
+
+	@Param({"brute", "grid", "sweep"})
+	public String broadphase; //A BruteForce scan, a SpatialHash, or a SweepAndPrune
+
+	@Param({"true", "false"})
+	public boolean merging; //Whether runs of static tiles are merged into single colliders
+
+	private World world;
+	private int tick;
+
+	//Rebuilt every iteration so each one measures the scene from the same starting state
+	@Setup(Level.Iteration)
+	public void setup() {
+		if(scene.equals("level1")) world = Scenes.level(1);
+		else if(scene.equals("level2")) world = Scenes.level(2);
+		else world = Scenes.build(9000, 900, 100, 42); //A floor 900,000 pixels long
+		world.setBroadphase(Scenes.broadphase(broadphase));
+		world.setMerging(merging);
+		world.start();
+		tick = 0;
+	}//end setup
+
+	//Walks the player back and forth while jumping, restarting the scene if it ever ends so every call is a real step
+	@Benchmark
+	public int step() {
+		tick++;
+		int inputs = (tick / 600) % 2 == 0 ? World.INPUT_RIGHT : World.INPUT_LEFT;
+		if(tick % 50 == 0) inputs |= World.INPUT_JUMP;
+
+		int status = world.step(inputs);
+		if(status != World.RUNNING) this.setup();
+		return status;
+	}//end step
+
+}//end BroadphaseBenchmark
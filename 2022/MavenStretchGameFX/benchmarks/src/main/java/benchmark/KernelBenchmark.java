@@ -0,0 +1,101 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.PhysicsSprite;
+import application.Rectangle;
+import application.Sprite;
+import application.World;
+import application.decayingVelocity;
+
+/** Measures the individual collision kernels the physics step is built from */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KernelBenchmark {
+
+	@Param({"100", "1000"})
+	public int tiles; //N static floor tiles the collide and fall kernels scan
+
+	//Two rectangles half overlapping side by side, so leftHit, rightHit, and bottomSupported all do their full checks
+	private Rectangle left = new Rectangle(0, 0, 225, 169);
+	private Rectangle right = new Rectangle(150, 100, 225, 169);
+
+	private decayingVelocity velocity = new decayingVelocity(0, 0, 0.5);
+
+	private PhysicsSprite body; //A crate resting on the floor in the middle of the scene
+	private ArrayList<Sprite> surfaces;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		World world = Scenes.build(tiles, 10, 0, 42);
+		world.start();
+		surfaces = world.getSurfaces();
+
+		body = new PhysicsSprite(1, .5);
+		body.setBoundary(new Rectangle(0, 0, Scenes.CRATE_WIDTH, Scenes.CRATE_HEIGHT));
+		body.setPosition(tiles * Scenes.TILE_SIZE / 2, -Scenes.CRATE_HEIGHT);
+		body.addDecayingVelocity(0, 0, 0.5);
+	}//end setup
+
+	@Benchmark
+	public boolean overlaps() {
+		return left.overlaps(right);
+	}
+
+	@Benchmark
+	public boolean leftHit() {
+		return right.leftHit(left);
+	}
+
+	@Benchmark
+	public boolean rightHit() {
+		return left.rightHit(right);
+	}
+
+	@Benchmark
+	public boolean bottomSupported() {
+		return left.bottomSupported(right);
+	}
+
+	//Resets the velocity each time so every call decays a non-zero vector
+	@Benchmark
+	public double decay() {
+		velocity.set(7, -3);
+		velocity.decay();
+		return velocity.getX();
+	}
+
+	//A brute force collide against every surface in the scene, as PhysicsSprite does without a broadphase
+	@Benchmark
+	public double collide() {
+		body.collide(surfaces);
+		return body.getTempVelocity().getX();
+	}
+
+	//A brute force fall against every surface in the scene, resetting the position it lands at each time
+	@Benchmark
+	public double fall() {
+		body.setPosition(tiles * Scenes.TILE_SIZE / 2, -Scenes.CRATE_HEIGHT);
+		body.fall(surfaces);
+		return body.getVelocityY();
+	}
+
+}//end KernelBenchmark
@@ -0,0 +1,57 @@
+package benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.World;
+
+/** Measures one World.step() with islands of bodies stepped in parallel against the same scene stepped in order */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelStepBenchmark {
+
+	@Param({"1000", "9000"})
+	public int tiles; //N static floor tiles, the crates and enemies are spread over them
+
+	@Param({"false", "true"})
+	public boolean parallel; //Whether islands are stepped on the common ForkJoinPool
+
+	private World world;
+	private int tick;
+
+	//Rebuilt every iteration so each one measures the scene from the same starting state
+	@Setup(Level.Iteration)
+	public void setup() {
+		world = Scenes.build(tiles, tiles / 10, tiles / 90, 42);
+		if(parallel) world.setParallel(ForkJoinPool.commonPool());
+		world.start();
+		tick = 0;
+	}//end setup
+
+	//Walks the player back and forth while jumping, the same as WorldStepBenchmark
+	@Benchmark
+	public int step() {
+		tick++;
+		int inputs = (tick / 600) % 2 == 0 ? World.INPUT_RIGHT : World.INPUT_LEFT;
+		if(tick % 50 == 0) inputs |= World.INPUT_JUMP;
+		return world.step(inputs);
+	}//end step
+
+}//end ParallelStepBenchmark
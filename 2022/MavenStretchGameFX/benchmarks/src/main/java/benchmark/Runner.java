@@ -0,0 +1,23 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Runs the benchmarks with the GC profiler attached, so every result reports allocations per operation alongside ns/op.
+ *  Any normal JMH command line options (e.g a benchmark name regex, -p tiles=1000) are passed straight through.
+ * */
+public class Runner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new org.openjdk.jmh.runner.Runner(options).run();
+	}//end main
+
+}//end Runner
@@ -0,0 +1,111 @@
+package benchmark;
+
+import java.io.IOException;
+import java.util.Random;
+
+import application.Broadphase;
+import application.BruteForce;
+import application.Enemy;
+import application.LevelLoader;
+import application.PhysicsSprite;
+import application.PlayerObject;
+import application.Rectangle;
+import application.SpatialHash;
+import application.Sprite;
+import application.SweepAndPrune;
+import application.World;
+
+/** Scenes builds headless Worlds for benchmarking, sized with hitboxes matching the game's pictures so no picture is ever loaded */
+public class Scenes {
+
+	//Hitbox sizes of the pictures the real levels use
+	public static final double TILE_SIZE = 100;		//Block.png and Spikes.png
+	public static final double CRATE_WIDTH = 225;	//Crate.png
+	public static final double CRATE_HEIGHT = 169;
+	public static final double ENEMY_WIDTH = 162;	//Eye.png
+	public static final double ENEMY_HEIGHT = 164;
+
+	//Scenes is only used statically
+	private Scenes() {}
+
+	/** Builds a World with a floor of tiles, crates and enemies scattered along it, and a player at the left end.
+	 *  It isn't started, so modes can be turned on first with the World's own setters (e.g setStreaming or setMerging),
+	 *  which keeps a new mode from needing another way to build the scene.
+	 * @param tiles The number of static floor tiles, the floor is tiles * TILE_SIZE wide.
+	 * @param crates The number of crates (PhysicsSprites).
+	 * @param enemies The number of enemies.
+	 * @param seed The seed crates and enemies are scattered with, the same seed always builds the same World.
+	 * */
+	//PRE: tiles is large enough for the crates and enemies to fit on.
+	//POST: Returns a World that is ready to be started.
+	public static World build(int tiles, int crates, int enemies, long seed) {
+		Random random = new Random(seed);
+		World world = new World();
+		double floorWidth = tiles * TILE_SIZE;
+
+		//Walls at both ends keep everything on the floor, so a long run measures the same scene throughout
+		world.addSurface(solid(-TILE_SIZE, -2000, TILE_SIZE, 2000 + TILE_SIZE));
+		world.addSurface(solid(floorWidth, -2000, TILE_SIZE, 2000 + TILE_SIZE));
+
+		for(int i = 0; i < tiles; i++) {
+			world.addSurface(solid(i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE));
+		}//end for
+
+		for(int i = 0; i < crates; i++) {
+			PhysicsSprite crate = new PhysicsSprite(1 + random.nextInt(2), .5);
+			crate.setBoundary(new Rectangle(0, 0, CRATE_WIDTH, CRATE_HEIGHT));
+			crate.setPosition(300 + random.nextDouble() * (floorWidth - 600), -CRATE_HEIGHT - random.nextDouble() * 400);
+			world.addSurface(crate);
+		}//end for
+
+		for(int i = 0; i < enemies; i++) {
+			Enemy enemy = new Enemy(1, .5, 200);
+			enemy.setBoundary(new Rectangle(0, 0, ENEMY_WIDTH, ENEMY_HEIGHT));
+			enemy.setPosition(300 + random.nextDouble() * (floorWidth - 600), -ENEMY_HEIGHT - random.nextDouble() * 400);
+			world.addSurface(enemy);
+		}//end for
+
+		//The player has far more health than it can lose so a benchmark never ends the level early
+		PlayerObject player = new PlayerObject(1, .5, Double.MAX_VALUE);
+		player.setPosition(20, -player.getBoundaryHeight());
+		world.setPlayer(player);
+		return world;
+	}//end build
+
+	/** Loads one of the game's levels headless, the same way Level loads it without its pictures, with an unkillable player.
+	 *  As with build() it isn't started, so modes can be turned on first.
+	 * @param levelNum The number of the level.
+	 * */
+	//POST: Returns a World that is ready to be started.
+	public static World level(int levelNum) {
+		World world = new World();
+		try {
+			LevelLoader.load(levelNum, world, false);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The level " + levelNum + " couldn't be read!", e);
+		}
+		//As in build(), the player has far more health than it can lose so a benchmark never ends the level early
+		world.getPlayer().setHealth(Double.MAX_VALUE);
+		return world;
+	}//end level
+
+	/** Creates an empty broadphase by name
+	 * @param name "brute" for a BruteForce scan, "grid" for a SpatialHash, or "sweep" for a SweepAndPrune.
+	 * */
+	public static Broadphase broadphase(String name) {
+		if(name.equals("brute")) return new BruteForce();
+		if(name.equals("grid")) return new SpatialHash(256);
+		if(name.equals("sweep")) return new SweepAndPrune();
+		throw new IllegalArgumentException("There is no broadphase called " + name + "!");
+	}//end broadphase
+
+	//Creates a solid, non-physics Sprite with the given hitbox
+	private static Sprite solid(double x, double y, double width, double height) {
+		Sprite sprite = new Sprite();
+		sprite.setBoundary(new Rectangle(0, 0, width, height));
+		sprite.setPosition(x, y);
+		sprite.setSolid(true);
+		return sprite;
+	}//end solid
+
+}//end Scenes
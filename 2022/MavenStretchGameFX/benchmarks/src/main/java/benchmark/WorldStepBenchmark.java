@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import application.World;
+
+/** Measures one full World.step() across scenes of different sizes */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldStepBenchmark {
+
+	@Param({"100", "1000"})
+	public int tiles; //N static floor tiles
+
+	@Param({"10", "200"})
+	public int crates; //M crates
+
+	@Param({"0", "20"})
+	public int enemies; //K enemies
+
+	@Param({"0", "1024"})
+	public double chunkWidth; //The width of the chunks the World is streamed in, 0 for no streaming
+
+	@Param({"false", "true"})
+	public boolean packed; //Whether entities are kept in an EntityStore rather than their own objects
+
+	@Param({"true", "false"})
+	public boolean sleeping; //Whether crates that come to rest are put to sleep
+
+	private World world;
+	private int tick;
+
+	//Rebuilt every iteration so each one measures the scene from the same starting state
+	@Setup(Level.Iteration)
+	public void setup() {
+		world = Scenes.build(tiles, crates, enemies, 42);
+		if(chunkWidth > 0) world.setStreaming(chunkWidth, 2);
+		world.setPacked(packed);
+		world.setSleeping(sleeping);
+		world.start();
+		tick = 0;
+	}//end setup
+
+	//Walks the player back and forth while jumping so it keeps pushing through the scene
+	@Benchmark
+	public int step() {
+		tick++;
+		int inputs = (tick / 600) % 2 == 0 ? World.INPUT_RIGHT : World.INPUT_LEFT;
+		if(tick % 50 == 0) inputs |= World.INPUT_JUMP;
+		return world.step(inputs);
+	}//end step
+
+}//end WorldStepBenchmark
@@ -0,0 +1,160 @@
+package application;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.scene.image.Image;
+
+/** AssetLoader loads everything in the AssetManifest side by side before the main menu is shown.
+ *  Pictures are decoded by JavaFX's own background image loading and sounds on an Executor, so the window keeps
+ *  drawing while they load and can show how far along they are. How long each asset took is kept for a startup report.
+ *  */
+public class AssetLoader {
+
+	private final Executor executor; //Where sounds are decoded
+
+	private ArrayList<String> names = new ArrayList<String>(); //Every asset's path, pictures then sounds
+	private int pictureCount;
+	private long[] started; //The nanotime each asset started loading
+	private long[] finished; //The nanotime each asset finished loading, 0 while it is still loading
+	private boolean[] failed; //Whether each asset couldn't be loaded
+	private int loaded; //How many assets have finished, loaded or not
+	private long startTime, endTime;
+
+	private ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0); //The fraction of assets that have finished
+	private Runnable onFinished;
+
+	/** Constructs an AssetLoader
+	 * @param executor Where sounds are decoded, pictures are decoded by JavaFX
+	 * */
+	public AssetLoader(Executor executor) {
+		this.executor = executor;
+	}//end AssetLoader constructor
+
+	/** Starts loading every asset in the manifest
+	 * @param onFinished Run on the JavaFX application thread once every asset has loaded or failed to
+	 * */
+	//PRE: Called once, from the JavaFX application thread.
+	//POST: Every picture is loading in the ImageCache and every sound is queued for the SoundCache.
+	public void start(Runnable onFinished) {
+		this.onFinished = onFinished;
+		ArrayList<String> pictures = AssetManifest.pictures();
+		pictureCount = pictures.size();
+		names.addAll(pictures);
+		for(String sound : AssetManifest.SOUNDS)
+			names.add(sound);
+
+		started = new long[names.size()];
+		finished = new long[names.size()];
+		failed = new boolean[names.size()];
+		startTime = System.nanoTime();
+
+		for(int i = 0; i < pictureCount; i++)
+			this.loadPicture(i);
+		for(int i = pictureCount; i < names.size(); i++)
+			this.loadSound(i);
+
+		if(names.isEmpty()) this.finish();
+	}//end start
+
+	//Starts a picture loading in the background, noting when it is done
+	private void loadPicture(int index) {
+		started[index] = System.nanoTime();
+		Image image = ImageCache.load(names.get(index));
+
+		//A picture that was already decoded (e.g the window icon) is done straight away
+		if(image.getProgress() >= 1 || image.isError()) {
+			this.finished(index, image.isError());
+			return;
+		}//end if
+
+		//Image reports its progress on the JavaFX application thread
+		image.progressProperty().addListener((observable, oldProgress, newProgress) -> {
+			if(newProgress.doubleValue() >= 1) this.finished(index, image.isError());
+		});
+		image.errorProperty().addListener((observable, wasError, isError) -> {
+			if(isError) this.finished(index, true);
+		});
+	}//end loadPicture
+
+	//Queues a sound to be decoded on the executor, noting when it is done back on the JavaFX application thread
+	private void loadSound(int index) {
+		executor.execute(() -> {
+			started[index] = System.nanoTime();
+			boolean loadedSound = false;
+			try {
+				loadedSound = SoundCache.get(names.get(index)) != null;
+			} catch (RuntimeException e) {
+				e.printStackTrace(); //A missing sound leaves the game silent rather than stopping it from starting
+			}
+			boolean error = !loadedSound;
+			Platform.runLater(() -> this.finished(index, error));
+		});
+	}//end loadSound
+
+	//PRE: Called on the JavaFX application thread.
+	//POST: The asset is marked finished once, and onFinished is run when it was the last one.
+	private void finished(int index, boolean error) {
+		if(finished[index] != 0) return;
+		finished[index] = System.nanoTime();
+		failed[index] = error;
+		loaded++;
+		progress.set((double)loaded / names.size());
+		if(loaded == names.size()) this.finish();
+	}//end finished
+
+	//Marks the end of loading and hands over to whatever comes next
+	private void finish() {
+		endTime = System.nanoTime();
+		progress.set(1);
+		onFinished.run();
+	}//end finish
+
+	/** Writes when each asset started and finished loading to a csv file
+	 * @param file The file to write to, its folder is created if needed
+	 * */
+	//PRE: Every asset has finished.
+	public void writeCsv(File file) throws IOException {
+		if(file.getParentFile() != null) file.getParentFile().mkdirs();
+
+		PrintWriter out = new PrintWriter(new FileWriter(file));
+		try {
+			out.println("asset,kind,start_ms,load_ms,failed");
+			for(int i = 0; i < names.size(); i++) {
+				out.println(String.format(Locale.ROOT, "%s,%s,%.4f,%.4f,%b", names.get(i), i < pictureCount ? "picture" : "sound",
+						(started[i] - startTime) / 1e6, (finished[i] - started[i]) / 1e6, failed[i]));
+			}//end for
+		} finally {
+			out.close();
+		}
+	}//end writeCsv
+
+	//The fraction of assets that have finished loading, from 0 to 1
+	public ReadOnlyDoubleProperty progressProperty() {
+		return progress.getReadOnlyProperty();
+	}
+
+	//Returns how many assets have finished loading
+	public int getLoaded() {
+		return loaded;
+	}
+
+	//Returns how many assets are in the manifest
+	public int getTotal() {
+		return names.size();
+	}
+
+	//Returns how long loading every asset took in nanoseconds
+	public long getLoadTime() {
+		return endTime - startTime;
+	}
+
+}//end AssetLoader
@@ -0,0 +1,45 @@
+package application;
+
+import java.util.ArrayList;
+
+/** AssetManifest lists every picture and sound the game loads before the main menu is shown.
+ *  The pictures of each level's entities aren't listed, they come from its level file and are loaded with the level (see LevelResources).
+ *  */
+public class AssetManifest {
+
+	//Sounds, as paths inside the jar
+	public static final String LEVEL_MUSIC = "/Music/scifi.mp3";
+	public static final String PLAYER_JUMP = "/Music/slimejump-6913.mp3";
+	public static final String PLAYER_HURT = "/Music/slime-squish-14539.mp3";
+	public static final String ENEMY_HURT = "/Music/umph-47201.mp3";
+	public static final String GEM_COLLECTED = "/Music/snd_fragment_retrievewav-14728.mp3";
+	public static final String LEVEL_BEATEN = "/Music/teleport-14639.mp3";
+
+	//Every sound effect, the music is streamed by a MediaPlayer so it is never decoded up front
+	public static final String[] SOUNDS = {PLAYER_JUMP, PLAYER_HURT, ENEMY_HURT, GEM_COLLECTED, LEVEL_BEATEN};
+
+	public static final String LEVEL_BACKGROUND = "Pictures/BigWallBackground.jpg"; //The picture tiled behind every level
+
+	//The menus' backgrounds, logo, and button graphics
+	public static final String[] MENU_PICTURES = {"Pictures/MenuBackground.jpg", "Pictures/TitleLogo.png", "Pictures/startgame.png",
+			"Pictures/continuegame.png", "Pictures/settings.png", "Pictures/quit.png", "Pictures/goback.png", "Pictures/restart.png",
+			"Pictures/nextlevel.png"};
+
+	//AssetManifest is only used statically
+	private AssetManifest() {}
+
+	/** Lists every picture loaded at startup */
+	//POST: Returns the menu pictures, the level background, and every size and facing of the player, each once.
+	public static ArrayList<String> pictures() {
+		ArrayList<String> pictures = new ArrayList<String>();
+		for(String picture : MENU_PICTURES)
+			pictures.add(picture);
+		pictures.add(LEVEL_BACKGROUND);
+		for(String[] size : PlayerObject.SIZE_IMAGE_PATHS) {
+			pictures.add(size[0]);
+			pictures.add(size[1]);
+		}//end for
+		return pictures;
+	}//end pictures
+
+}//end AssetManifest
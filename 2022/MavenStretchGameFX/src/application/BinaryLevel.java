@@ -0,0 +1,251 @@
+package application;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/** BinaryLevel is a compiled form of a level file that is loaded with almost no parsing.
+ *
+ *  The file is a header, a table of every picture path used, then one fixed-width record per entity:
+ *  	int magic ("SLVL"), short version, short 0, int levelTime
+ *  	int stringCount, then per string: unsigned short byteLength, UTF-8 bytes
+ *  	int entityCount, then per entity (RECORD_SIZE bytes):
+ *  		byte type, byte flags, short image, short rightImage (-1 if none), short 0,
+ *  		double x, y, width, height, mass, gravity, health
+ *  */
+public class BinaryLevel {
+
+	public static final int MAGIC = 0x534C564C; //"SLVL"
+	public static final short VERSION = 1;
+	public static final int RECORD_SIZE = 64; //The size in bytes of one entity record
+
+	//Bits of a record's flags byte
+	private static final int SOLID_SET = 1;		//The entity's solidity was given, otherwise its type's default is used
+	private static final int SOLID = 2;			//The entity is solid, only read when SOLID_SET is set
+	private static final int MAX_STRING_BYTES = 0xFFFF; //The longest picture path the table can hold, its lengths are unsigned shorts
+
+	//BinaryLevel is only used statically
+	private BinaryLevel() {}
+
+	/** Loads a binary level file into a World by memory mapping it
+	 * @param file The binary level file
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity in the level is added to world and its level time is set.
+	public static void load(File file, World world, boolean loadPictures) throws IOException {
+		load(map(file), world, loadPictures);
+	}//end load
+
+	/** Loads a binary level from a stream (e.g from inside the jar) into a World
+	 * @param in The binary level
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity in the level is added to world and its level time is set.
+	public static void load(InputStream in, World world, boolean loadPictures) throws IOException {
+		load(readAll(in), world, loadPictures);
+	}//end load
+
+	/** Loads a binary level into a World straight from its records
+	 * @param buffer The binary level, read from its current position
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity in the level is added to world and its level time is set. Throws an IllegalArgumentException if buffer isn't a binary level
+	//      or the level has no player, the same as a text level.
+	public static void load(ByteBuffer buffer, World world, boolean loadPictures) {
+		world.setLevelTime(readHeader(buffer));
+		String[] strings = readStrings(buffer);
+
+		int count = readCount(buffer);
+		boolean hasPlayer = false;
+		for(int i = 0; i < count; i++) {
+			int record = buffer.position() + i * RECORD_SIZE;
+			hasPlayer |= buffer.get(record) == LevelData.PLAYER;
+			int flags = buffer.get(record + 1);
+			int rightImage = buffer.getShort(record + 4);
+			LevelLoader.addEntity(world, loadPictures, buffer.get(record), strings[buffer.getShort(record + 2)], rightImage < 0 ? null : strings[rightImage],
+					buffer.getDouble(record + 8), buffer.getDouble(record + 16), buffer.getDouble(record + 24), buffer.getDouble(record + 32),
+					(flags & SOLID_SET) == 0 ? null : Boolean.valueOf((flags & SOLID) != 0),
+					buffer.getDouble(record + 40), buffer.getDouble(record + 48), buffer.getDouble(record + 56));
+		}//end for
+
+		if(!hasPlayer) throw new IllegalArgumentException("The level has no player!");
+	}//end load
+
+	/** Reads a binary level file into a LevelData by memory mapping it
+	 * @param file The binary level file
+	 * */
+	public static LevelData read(File file) throws IOException {
+		return read(map(file));
+	}//end read
+
+	/** Reads a binary level from a stream (e.g from inside the jar) into a LevelData
+	 * @param in The binary level
+	 * */
+	public static LevelData read(InputStream in) throws IOException {
+		return read(readAll(in));
+	}//end read
+
+	/** Reads a binary level back into a LevelData
+	 * @param buffer The binary level, read from its current position
+	 * */
+	//POST: Returns the level's time and entities in order. Throws an IllegalArgumentException if buffer isn't a binary level or has no player.
+	public static LevelData read(ByteBuffer buffer) {
+		LevelData level = new LevelData();
+		level.setLevelTime(readHeader(buffer));
+		String[] strings = readStrings(buffer);
+
+		int count = readCount(buffer);
+		boolean hasPlayer = false;
+		for(int i = 0; i < count; i++) {
+			LevelData.Entity entity = new LevelData.Entity();
+			entity.type = buffer.get();
+			int flags = buffer.get();
+			entity.image = strings[buffer.getShort()];
+			int rightImage = buffer.getShort();
+			entity.rightImage = rightImage < 0 ? null : strings[rightImage];
+			buffer.getShort(); //unused
+			entity.x = buffer.getDouble();
+			entity.y = buffer.getDouble();
+			entity.width = buffer.getDouble();
+			entity.height = buffer.getDouble();
+			entity.solid = (flags & SOLID_SET) == 0 ? null : Boolean.valueOf((flags & SOLID) != 0);
+			entity.mass = buffer.getDouble();
+			entity.gravity = buffer.getDouble();
+			entity.health = buffer.getDouble();
+			hasPlayer |= entity.type == LevelData.PLAYER;
+			level.getEntities().add(entity);
+		}//end for
+
+		if(!hasPlayer) throw new IllegalArgumentException("The level has no player!");
+		return level;
+	}//end read
+
+	/** Writes a level in the binary format
+	 * @param level The level to write
+	 * @param out Where the binary level is written, it is not closed
+	 * */
+	//PRE: level uses fewer than 32768 different picture paths, each less than 65536 bytes long in UTF-8.
+	//POST: The header, picture path table, and one record per entity are written to out.
+	public static void write(LevelData level, OutputStream out) throws IOException {
+		//Every picture path is stored once, records refer to them by their index in the table
+		ArrayList<String> strings = new ArrayList<String>();
+		HashMap<String, Integer> indexes = new HashMap<String, Integer>();
+		for(LevelData.Entity entity : level.getEntities()) {
+			indexOf(entity.image, strings, indexes);
+			if(entity.rightImage != null) indexOf(entity.rightImage, strings, indexes);
+		}//end for
+		if(strings.size() > Short.MAX_VALUE) throw new IllegalArgumentException("A binary level can't use more than " + Short.MAX_VALUE + " pictures!");
+		//Path lengths are stored as unsigned shorts, a longer one would be cut off
+		for(String string : strings) {
+			if(string.getBytes(StandardCharsets.UTF_8).length > MAX_STRING_BYTES)
+				throw new IllegalArgumentException("A binary level can't use a picture path longer than " + MAX_STRING_BYTES + " bytes!");
+		}//end for
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		data.writeShort(0);
+		data.writeInt(level.getLevelTime());
+
+		data.writeInt(strings.size());
+		for(String string : strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			data.writeShort(bytes.length);
+			data.write(bytes);
+		}//end for
+
+		data.writeInt(level.getEntities().size());
+		for(LevelData.Entity entity : level.getEntities()) {
+			int flags = 0;
+			if(entity.solid != null) flags = SOLID_SET | (entity.solid ? SOLID : 0);
+
+			data.writeByte(entity.type);
+			data.writeByte(flags);
+			data.writeShort(indexes.get(entity.image));
+			data.writeShort(entity.rightImage == null ? -1 : indexes.get(entity.rightImage));
+			data.writeShort(0);
+			data.writeDouble(entity.x);
+			data.writeDouble(entity.y);
+			data.writeDouble(entity.width);
+			data.writeDouble(entity.height);
+			data.writeDouble(entity.mass);
+			data.writeDouble(entity.gravity);
+			data.writeDouble(entity.health);
+		}//end for
+		data.flush();
+	}//end write
+
+	//Memory maps a whole file, the mapping stays valid after the channel is closed
+	private static ByteBuffer map(File file) throws IOException {
+		FileChannel channel = new FileInputStream(file).getChannel();
+		try {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			channel.close();
+		}
+	}//end map
+
+	//Reads the rest of a stream into memory
+	private static ByteBuffer readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+		while((read = in.read(chunk)) != -1) {
+			bytes.write(chunk, 0, read);
+		}//end while
+		return ByteBuffer.wrap(bytes.toByteArray());
+	}//end readAll
+
+	//Adds string to the table if it isn't in it yet
+	private static void indexOf(String string, ArrayList<String> strings, HashMap<String, Integer> indexes) {
+		if(indexes.containsKey(string)) return;
+		indexes.put(string, strings.size());
+		strings.add(string);
+	}//end indexOf
+
+	//PRE: buffer is at the start of a binary level.
+	//POST: Returns the level time, throws an IllegalArgumentException if the magic number or version don't match.
+	private static int readHeader(ByteBuffer buffer) {
+		if(buffer.remaining() < 12 || buffer.getInt() != MAGIC) throw new IllegalArgumentException("This isn't a binary level file!");
+		short version = buffer.getShort();
+		if(version != VERSION) throw new IllegalArgumentException("Binary level version " + version + " isn't supported, it must be rebuilt with LevelConverter!");
+		buffer.getShort(); //unused
+		return buffer.getInt();
+	}//end readHeader
+
+	//PRE: buffer is at the start of the picture path table.
+	//POST: Returns every picture path in the table in order.
+	private static String[] readStrings(ByteBuffer buffer) {
+		String[] strings = new String[buffer.getInt()];
+		for(int i = 0; i < strings.length; i++) {
+			byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+			buffer.get(bytes);
+			strings[i] = new String(bytes, StandardCharsets.UTF_8);
+		}//end for
+		return strings;
+	}//end readStrings
+
+	//PRE: buffer is at the entity count.
+	//POST: Returns the number of entity records, throws an IllegalArgumentException if the file is too short to hold them.
+	private static int readCount(ByteBuffer buffer) {
+		int count = buffer.getInt();
+		if(count < 0 || (long)count * RECORD_SIZE > buffer.remaining()) throw new IllegalArgumentException("The binary level is cut short!");
+		return count;
+	}//end readCount
+
+}//end BinaryLevel
@@ -0,0 +1,43 @@
+package application;
+
+import java.util.ArrayList;
+
+/** A Broadphase narrows down which Sprites could be touching an area, so collision checks only look at what is near.
+ *
+ *  Every implementation returns its candidates in the order the Sprites were inserted, so a PhysicsSprite checking
+ *  them gets the same results as checking every surface in the list they came from, whichever one is used.
+ *  */
+public interface Broadphase {
+
+	/** Adds a Sprite, PhysicsSprites are tracked so refresh() can follow them as they move
+	 * @param sprite The Sprite being added, it is ordered after everything added so far
+	 * */
+	public void insert(Sprite sprite);
+
+	/** Adds a Sprite at a given place in the query order, for Sprites re-added after being removed
+	 * @param sprite The Sprite being added
+	 * @param order Where the sprite sorts in query results, lower first (e.g its index in the full list it comes from)
+	 * */
+	public void insert(Sprite sprite, int order);
+
+	/** Removes a Sprite, does nothing if it was never added */
+	public void remove(Sprite sprite);
+
+	/** Catches up with a single Sprite that may have moved */
+	public void update(Sprite sprite);
+
+	/** Catches up with every PhysicsSprite, should be called once per tick before any updates */
+	public void refresh();
+
+	/** Finds every Sprite that could be touching an area
+	 * @param area The area being searched around
+	 * @param out The list results are written into, it is cleared first
+	 * */
+	//PRE: out is a non-null list that isn't being iterated over, every Sprite that moved has been passed to update().
+	//POST: out holds every Sprite overlapping area (and possibly some that don't) in the order they were inserted.
+	public void query(Rectangle area, ArrayList<Sprite> out);
+
+	/** Returns how many Sprites have been added and not removed */
+	public int size();
+
+}//end Broadphase
@@ -0,0 +1,58 @@
+package application;
+
+import java.util.ArrayList;
+
+/** BruteForce is a Broadphase that doesn't narrow anything down, every query returns every Sprite.
+ *  It is what a PhysicsSprite checked before there were broadphases, kept to measure the others against.
+ *  */
+public class BruteForce implements Broadphase {
+
+	private ArrayList<Sprite> sprites = new ArrayList<Sprite>(); //Every Sprite, sorted by order
+	private ArrayList<Integer> orders = new ArrayList<Integer>(); //The order of each Sprite in sprites
+	private int nextOrder = 0;
+
+	@Override
+	public void insert(Sprite sprite) {
+		this.insert(sprite, nextOrder);
+	}
+
+	@Override
+	public void insert(Sprite sprite, int order) {
+		if(sprites.contains(sprite)) return;
+
+		//Sprites are nearly always added in order, so this only walks back past the ones added out of order
+		int i = sprites.size();
+		while(i > 0 && orders.get(i - 1) > order) i--;
+		sprites.add(i, sprite);
+		orders.add(i, order);
+		nextOrder = Math.max(nextOrder, order + 1);
+	}//end insert
+
+	@Override
+	public void remove(Sprite sprite) {
+		int i = sprites.indexOf(sprite);
+		if(i < 0) return;
+		sprites.remove(i);
+		orders.remove(i);
+	}//end remove
+
+	//Nothing is tracked by position, so there is nothing to catch up with
+	@Override
+	public void update(Sprite sprite) {}
+
+	@Override
+	public void refresh() {}
+
+	@Override
+	public void query(Rectangle area, ArrayList<Sprite> out) {
+		out.clear();
+		for(int i = 0; i < sprites.size(); i++)
+			out.add(sprites.get(i));
+	}//end query
+
+	@Override
+	public int size() {
+		return sprites.size();
+	}
+
+}//end BruteForce
@@ -0,0 +1,298 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/** ChunkMap splits a World into fixed-width vertical chunks so only the chunks around a focus point (the player) are worked on.
+ *
+ *  Chunks within the radius of the focus chunk are active and their sprites are simulated. One more chunk on each side is
+ *  frozen but still collidable, so bodies at the edge of the active chunks still land on and bump into what is next to them.
+ *  Everything further away is frozen entirely, its sprites keep their state and simply aren't updated, collided with, or drawn
+ *  until the focus comes near again. A sprite belongs to every chunk its hitbox covers, so wide floors are never dropped.
+ *  */
+public class ChunkMap {
+
+	//The categories of sprites a World tracks, each kept in its own lists
+	public static final int SURFACES = 0;
+	public static final int NONSURFACES = 1;
+	public static final int HAZARDS = 2;
+	public static final int COLLECTIBLES = 3;
+	private static final int CATEGORIES = 4;
+
+	private final double chunkWidth; //The width of every chunk
+	private final int radius; //How many chunks on each side of the focus chunk are simulated
+
+	private double originX; //The left edge of the first chunk
+	private Chunk[] chunks; //Every chunk from left to right, sprites past either end belong to the end chunks
+
+	//Every sprite's entry in each category, so removed sprites can be found
+	private ArrayList<IdentityHashMap<Sprite, Entry>> entries = new ArrayList<IdentityHashMap<Sprite, Entry>>(CATEGORIES);
+	private int[] nextOrder = new int[CATEGORIES]; //The order the next sprite added to each category gets
+
+	//The result of the last rebuild, reused so streaming never allocates after start
+	private ArrayList<ArrayList<Entry>> activeEntries = new ArrayList<ArrayList<Entry>>(CATEGORIES);	//Entries within collision range, in order
+	private ArrayList<ArrayList<Sprite>> active = new ArrayList<ArrayList<Sprite>>(CATEGORIES);		//Sprites of activeEntries, the lists a World works on
+	private ArrayList<Sprite> simulated = new ArrayList<Sprite>();			//Surfaces within the radius that are updated each tick, in order
+	private ArrayList<Entry> activeDynamic = new ArrayList<Entry>();		//Entries of active PhysicsSprites, checked for changing chunks
+
+	private Broadphase broadphase; //Kept holding exactly the active surfaces
+
+	private int focusChunk = Integer.MIN_VALUE; //The chunk the focus was in at the last rebuild
+	private boolean dirty = true; //Set when a sprite changes chunks or is removed so the next update rebuilds
+	private int stamp = 0; //Incremented every rebuild to mark which entries are in it
+	private int[] cursors; //One position per chunk in range, used to merge them in order
+
+	//A sprite's membership in one category
+	private static class Entry {
+		private final Sprite sprite;
+		private final int order; //Its position in the full list of its category, lists are always kept sorted by it
+		private final boolean dynamic; //Whether it can move between chunks on its own
+		private int firstChunk, lastChunk; //The range of chunks it belongs to
+		private int stamp = -1; //The rebuild it was last made active by
+		private boolean removed; //Set once it is removed so it is never placed back into a chunk
+
+		private Entry(Sprite sprite, int order, boolean dynamic) {
+			this.sprite = sprite;
+			this.order = order;
+			this.dynamic = dynamic;
+		}
+	}//end Entry
+
+	//One fixed-width slice of the world
+	private static class Chunk {
+		private ArrayList<ArrayList<Entry>> lists = new ArrayList<ArrayList<Entry>>(CATEGORIES); //The entries in each category, sorted by order
+
+		private Chunk() {
+			for(int i = 0; i < CATEGORIES; i++)
+				lists.add(new ArrayList<Entry>());
+		}
+	}//end Chunk
+
+	/** Constructs an empty ChunkMap
+	 * @param chunkWidth The width of each chunk
+	 * @param radius How many chunks on each side of the focus chunk are simulated
+	 * */
+	public ChunkMap(double chunkWidth, int radius) {
+		if(chunkWidth <= 0) throw new IllegalArgumentException("The chunk width " + chunkWidth + " must be positive!");
+		if(radius < 0) throw new IllegalArgumentException("The chunk radius " + radius + " can't be negative!");
+		this.chunkWidth = chunkWidth;
+		this.radius = radius;
+
+		for(int i = 0; i < CATEGORIES; i++) {
+			entries.add(new IdentityHashMap<Sprite, Entry>());
+			activeEntries.add(new ArrayList<Entry>());
+			active.add(new ArrayList<Sprite>());
+		}//end for
+		cursors = new int[2 * radius + 3];
+	}//end ChunkMap constructor
+
+	/** Splits every sprite of a World into chunks
+	 * @param lists The full surfaces, nonsurfaces, hazards, and collectibles lists, indexed by category
+	 * @param broadphase The broadphase that is kept holding the active surfaces, it should start empty
+	 * */
+	//PRE: Called once before any update().
+	//POST: Every sprite is in the chunks its hitbox covers. Nothing is active until update() is called.
+	public void build(List<ArrayList<Sprite>> lists, Broadphase broadphase) {
+		this.broadphase = broadphase;
+
+		//The chunks span every sprite at the start, anything that later leaves that span belongs to the end chunks
+		double minX = Double.MAX_VALUE;
+		double maxX = -Double.MAX_VALUE;
+		for(int c = 0; c < CATEGORIES; c++) {
+			for(int i = 0; i < lists.get(c).size(); i++) {
+				Rectangle box = lists.get(c).get(i).getBoundary();
+				minX = Math.min(minX, box.getX());
+				maxX = Math.max(maxX, box.getX() + box.getWidth());
+			}//end for
+		}//end for
+		if(minX > maxX) minX = maxX = 0;
+
+		originX = minX;
+		chunks = new Chunk[(int)Math.floor((maxX - minX) / chunkWidth) + 1];
+		for(int i = 0; i < chunks.length; i++)
+			chunks[i] = new Chunk();
+
+		for(int c = 0; c < CATEGORIES; c++) {
+			for(int i = 0; i < lists.get(c).size(); i++) {
+				Sprite sprite = lists.get(c).get(i);
+				Entry entry = new Entry(sprite, nextOrder[c]++, c == SURFACES && sprite instanceof PhysicsSprite);
+				entries.get(c).put(sprite, entry);
+				this.place(entry, c);
+			}//end for
+		}//end for
+	}//end build
+
+	/** Re-activates the chunks around the focus if it has moved into another chunk or a sprite has changed chunks
+	 * @param focusX The x position the active chunks are centered on (e.g the middle of the player)
+	 * @return true if the active lists were rebuilt
+	 * */
+	//PRE: build() has been called.
+	//POST: The active lists, simulated list, and broadphase hold exactly the sprites in range of focusX.
+	public boolean update(double focusX) {
+		int focus = this.chunkOf(focusX);
+		if(focus == focusChunk && !dirty) return false;
+
+		focusChunk = focus;
+		dirty = false;
+		stamp++;
+
+		int first = Math.max(focus - radius - 1, 0);
+		int last = Math.min(focus + radius + 1, chunks.length - 1);
+		for(int c = 0; c < CATEGORIES; c++)
+			this.merge(c, first, last);
+
+		//Surfaces that left collision range leave the broadphase, ones that entered it join it in their original order
+		simulated.clear();
+		activeDynamic.clear();
+		ArrayList<Entry> surfaces = activeEntries.get(SURFACES);
+		for(int i = 0; i < surfaces.size(); i++) {
+			Entry entry = surfaces.get(i);
+			broadphase.insert(entry.sprite, entry.order);
+			if(entry.dynamic) activeDynamic.add(entry);
+
+			if(entry.lastChunk >= focus - radius && entry.firstChunk <= focus + radius)
+				simulated.add(entry.sprite);
+		}//end for
+
+		return true;
+	}//end update
+
+	/** Moves every active PhysicsSprite into the chunks it now covers, should be called once per tick after everything has moved */
+	//POST: Any PhysicsSprite that crossed into another chunk is re-chunked and the next update() will rebuild.
+	public void track() {
+		for(int i = 0; i < activeDynamic.size(); i++) {
+			Entry entry = activeDynamic.get(i);
+			if(entry.removed) continue;
+
+			Rectangle box = entry.sprite.getBoundary();
+			int first = this.chunkOf(box.getX());
+			int last = this.chunkOf(box.getX() + box.getWidth());
+			if(first == entry.firstChunk && last == entry.lastChunk) continue;
+
+			this.unplace(entry, SURFACES);
+			this.place(entry, SURFACES);
+			dirty = true;
+		}//end for
+	}//end track
+
+	/** Removes a sprite from a category for good (e.g a defeated enemy or a collected gem)
+	 * @param sprite The sprite being removed
+	 * @param category The category it is removed from
+	 * */
+	//POST: The sprite is out of its chunks, it is also removed from the broadphase if it is a surface.
+	public void remove(Sprite sprite, int category) {
+		Entry entry = entries.get(category).remove(sprite);
+		if(entry == null) return;
+
+		entry.removed = true;
+		this.unplace(entry, category);
+		if(category == SURFACES) broadphase.remove(sprite);
+		dirty = true;
+	}//end remove
+
+	//PRE: first <= last are valid chunk indexes.
+	//POST: activeEntries and active for the category hold every entry in chunks first to last once each, sorted by order.
+	//Entries that were active but no longer are leave the broadphase if they are surfaces.
+	private void merge(int category, int first, int last) {
+		ArrayList<Entry> out = activeEntries.get(category);
+		ArrayList<Entry> previous = out;
+
+		//Each chunk's list is sorted, so repeatedly taking the lowest head of all of them gives one sorted list
+		int count = last - first + 1;
+		for(int i = 0; i < count; i++)
+			cursors[i] = 0;
+
+		//The new entries are stamped first so the old list can be checked for ones that dropped out before it is overwritten
+		int total = 0;
+		for(int i = first; i <= last; i++) {
+			ArrayList<Entry> list = chunks[i].lists.get(category);
+			for(int j = 0; j < list.size(); j++)
+				list.get(j).stamp = stamp;
+			total += list.size();
+		}//end for
+
+		if(category == SURFACES) {
+			for(int i = 0; i < previous.size(); i++) {
+				if(previous.get(i).stamp != stamp) broadphase.remove(previous.get(i).sprite);
+			}//end for
+		}//end if
+
+		out.clear();
+		active.get(category).clear();
+		int lastOrder = -1;
+		for(int n = 0; n < total; n++) {
+			int lowest = -1;
+			for(int i = 0; i < count; i++) {
+				ArrayList<Entry> list = chunks[first + i].lists.get(category);
+				if(cursors[i] < list.size() && (lowest < 0 || list.get(cursors[i]).order < chunks[first + lowest].lists.get(category).get(cursors[lowest]).order))
+					lowest = i;
+			}//end for
+			if(lowest < 0) break;
+
+			Entry entry = chunks[first + lowest].lists.get(category).get(cursors[lowest]++);
+			//A sprite covering several chunks is at the head of each of them at once, it is only kept the first time
+			if(entry.order == lastOrder) continue;
+			lastOrder = entry.order;
+
+			out.add(entry);
+			active.get(category).add(entry.sprite);
+		}//end for
+	}//end merge
+
+	//POST: The entry is in the sorted list of every chunk its hitbox covers.
+	private void place(Entry entry, int category) {
+		Rectangle box = entry.sprite.getBoundary();
+		entry.firstChunk = this.chunkOf(box.getX());
+		entry.lastChunk = this.chunkOf(box.getX() + box.getWidth());
+
+		for(int i = entry.firstChunk; i <= entry.lastChunk; i++) {
+			ArrayList<Entry> list = chunks[i].lists.get(category);
+			int at = list.size();
+			while(at > 0 && list.get(at - 1).order > entry.order)
+				at--;
+			list.add(at, entry);
+		}//end for
+	}//end place
+
+	//POST: The entry is out of every chunk it was placed in.
+	private void unplace(Entry entry, int category) {
+		for(int i = entry.firstChunk; i <= entry.lastChunk; i++)
+			chunks[i].lists.get(category).remove(entry);
+	}//end unplace
+
+	//Returns the chunk an x position is in, positions past either end belong to the end chunks
+	private int chunkOf(double x) {
+		int chunk = (int)Math.floor((x - originX) / chunkWidth);
+		return Math.max(0, Math.min(chunk, chunks.length - 1));
+	}//end chunkOf
+
+	/** Gets the active sprites of a category, this is the same list every update so it can be held onto
+	 * @param category SURFACES, NONSURFACES, HAZARDS, or COLLECTIBLES
+	 * */
+	public ArrayList<Sprite> getActive(int category) {
+		return active.get(category);
+	}
+
+	/** Gets the surfaces that are simulated each tick, in order. This is the same list every update so it can be held onto */
+	public ArrayList<Sprite> getSimulated() {
+		return simulated;
+	}
+
+	public double getChunkWidth() {
+		return chunkWidth;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+
+	public int getChunkCount() {
+		return chunks == null ? 0 : chunks.length;
+	}
+
+	public int getFocusChunk() {
+		return focusChunk;
+	}
+
+}//end ChunkMap
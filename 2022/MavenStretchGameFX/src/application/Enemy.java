@@ -1,6 +1,5 @@
 package application;
 
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 
 import javafx.scene.image.Image;
@@ -31,13 +30,6 @@ public class Enemy extends PhysicsSprite{
 		super(mass, gravity);
 		this.health = health;
 		
-		//Initializes hurt
-		try {
-			hurt = new AudioClip(getClass().getResource("/Music/umph-47201.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}
-		
 	}//end Enemy constructor
 	
 	/**Constructs an enemy with a left facing and right facing sprite
@@ -51,17 +43,17 @@ public class Enemy extends PhysicsSprite{
 		super(mass, gravity);
 		this.health = health;
 		
-		rightFacing = new Image(rightFileName);
-		leftFacing = new Image(leftFileName);
-		
-		try {
-			hurt = new AudioClip(getClass().getResource("/Music/umph-47201.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}
+		rightFacing = ImageCache.get(rightFileName);
+		leftFacing = ImageCache.get(leftFileName);
 		
 	}//end Enemy constructor
 	
+	/** Loads the hurt sound effect shared by every Enemy, without it enemies are silent */
+	public static void loadSounds() {
+		if(hurt != null) return;
+		hurt = SoundCache.get(AssetManifest.ENEMY_HURT);
+	}//end loadSounds
+	
 	/** Changes the volume of the hurt sound effect.
 	 * @param volume The number the volume of hurt is supposed to be changed by.
 	 */
@@ -75,10 +67,23 @@ public class Enemy extends PhysicsSprite{
 	 * */
 	@Override
 	public void setImage(String filename) {
-		Image image = new Image(filename);
+		Image image = ImageCache.get(filename);
 		this.setImage(image);
-		this.getBoundary().setWidth(image.getWidth());
-		this.getBoundary().setHeight(image.getHeight());
+		this.setBoundarySize(image.getWidth(), image.getHeight());
+		this.sizeZones();
+	}
+	
+	/** Sets the hitbox of the Enemy directly, letting it be simulated without a picture.
+	 * @param boundary The new hitbox.
+	 * */
+	@Override
+	public void setBoundary(Rectangle boundary) {
+		super.setBoundary(boundary);
+		this.sizeZones();
+	}
+	
+	//Sizes the detection, damage, and vulnerable zones around the Enemy's hitbox
+	private void sizeZones() {
 		detectionArea = new Rectangle(0, 0, this.getBoundaryWidth() + 600, this.getBoundaryHeight() + 600);
 		damageSpot = new Rectangle(0, 0, this.getBoundaryWidth() + 20, this.getBoundaryHeight());
 		vulnerableSpot = new Rectangle(0, 0, this.getBoundaryWidth() - 20, 20);
@@ -102,11 +107,13 @@ public class Enemy extends PhysicsSprite{
 			this.getTempVelocity().decay();
 		}//end if
 		
-		this.collide(surfaces); //Checks for collisions
+		this.collide(this.nearby(surfaces)); //Checks for collisions
 		
 		this.addPosition(getTotalVelocity()); //Updates position
 		
-		this.fall(surfaces); //Updates velocity to reflect whether Enemy is falling or not
+		this.fall(this.nearby(surfaces)); //Updates velocity to reflect whether Enemy is falling or not
+		
+		if(this.getBroadphase() != null) this.getBroadphase().update(this);
 		
 		this.setVelocityX(0); //Sets internal velocity to 0 before Enemy knows where to move
 		
@@ -117,8 +124,11 @@ public class Enemy extends PhysicsSprite{
 		
 		PlayerObject player; //Pointer for playerObject used for convenience
 		
-		//Runs through surfaces to check where the player is
-		for(Sprite pointer : surfaces) {
+		//Runs through what is around the detectionArea to check where the player is, indexed so no Iterator is allocated
+		//Every spot the player can be hit or hurt from is inside the detectionArea, so nothing further away needs checking
+		ArrayList<Sprite> nearby = this.nearby(surfaces, detectionArea);
+		for(int i = 0; i < nearby.size(); i++) {
+			Sprite pointer = nearby.get(i);
 			
 			//Checks that the current pointer is the player
 			if(pointer instanceof PlayerObject) {
@@ -126,7 +136,7 @@ public class Enemy extends PhysicsSprite{
 				
 				//If player is ontop of the Enemy vulnerable spot Enemy takes damage.
 				if(vulnerableSpot.overlaps(player.getBoundary())) {
-					hurt.play();
+					if(hurt != null) hurt.play();
 					this.getHit(player);
 				}
 				//If player ISN'T damaging the enemy but is still overlapping the damageSpot player is hit instead.
@@ -184,21 +194,29 @@ public class Enemy extends PhysicsSprite{
 	//Helper method that "bumps" the Enemy in a direction away from the player
 	private void bump(PlayerObject player) {
 		
-		Vector bumpVelocity = new Vector(0, 0);
+		//Components are worked out as plain doubles rather than a new Vector so a bump never allocates
+		double bumpX;
+		double bumpY = 0;
 		
 		//Bumps the Enemy to the left if player is to the right, else bumps to the right
 		if(this.getBoundary().toLeft(player.getBoundary()))
-			bumpVelocity.setX(-3);
+			bumpX = -3;
 		else
-			bumpVelocity.setX(3);
+			bumpX = 3;
 		
 		//Bumps Enemy upwards if player is below Enemy, prevents Enemy landing on player being an instakill
 		if(this.getBoundaryY() + this.getBoundaryHeight() <= player.getBoundaryY())
-			bumpVelocity.setY(-10);
+			bumpY = -10;
 		
-		this.addDecayingVelocity(bumpVelocity, 0.3);
+		this.addDecayingVelocity(bumpX, bumpY, 0.3);
 	}//end bump
 
+	//Enemies chase the player on their own, so they are never put to sleep
+	@Override
+	protected boolean canSleep() {
+		return false;
+	}
+
 	public double getHealth() {
 		return health;
 	}
@@ -0,0 +1,229 @@
+package application;
+
+/** EntityStore keeps the state of many Sprites in parallel primitive arrays indexed by entity id, instead of each Sprite
+ *  holding its own Vectors and Rectangle. Overlap tests then read a few doubles straight out of arrays laid out in the
+ *  order entities were added, rather than chasing pointers through 5 or 6 objects per Sprite.
+ *
+ *  A Sprite is moved into a store with Sprite.attach(), after which its Vectors are views that read and write the
+ *  store's arrays, so the rest of the game uses the same Sprite API either way. The arrays never grow so views and
+ *  sweeps can hold onto them, a store is sized and filled once when a World starts and ids are never reused.
+ *  */
+public class EntityStore {
+
+	//Bits of an entity's flags
+	public static final int SOLID = 1;
+	public static final int ON_SURFACE = 2;
+	public static final int JUST_COLLIDED = 4;
+	public static final int ASLEEP = 8;
+
+	//Position, which is also the boundary's top left corner, and the boundary's size
+	final double[] x, y, width, height;
+	//Position as of the last tick, for interpolated rendering
+	final double[] previousX, previousY;
+	//The sprite's own velocity, that plus the decaying velocity, and the decaying velocity
+	final double[] velocityX, velocityY, totalX, totalY, tempX, tempY, decayRate;
+	//PhysicsSprite values, unused by other Sprites
+	final double[] mass, momentum, gravity;
+	final byte[] flags;
+
+	private int size = 0;
+
+	/** Constructs an empty EntityStore
+	 * @param capacity How many entities the store can hold
+	 * */
+	public EntityStore(int capacity) {
+		x = new double[capacity];
+		y = new double[capacity];
+		width = new double[capacity];
+		height = new double[capacity];
+		previousX = new double[capacity];
+		previousY = new double[capacity];
+		velocityX = new double[capacity];
+		velocityY = new double[capacity];
+		totalX = new double[capacity];
+		totalY = new double[capacity];
+		tempX = new double[capacity];
+		tempY = new double[capacity];
+		decayRate = new double[capacity];
+		mass = new double[capacity];
+		momentum = new double[capacity];
+		gravity = new double[capacity];
+		flags = new byte[capacity];
+	}//end EntityStore constructor
+
+	/** Makes room for a new entity, every value starting at 0
+	 * @return The new entity's id
+	 * */
+	//POST: Returns the next unused id. Throws an IllegalStateException if the store is full.
+	public int add() {
+		if(size == flags.length) throw new IllegalStateException("The EntityStore is full at " + size + " entities!");
+		return size++;
+	}//end add
+
+	/** Makes a Vector that reads and writes one entity's values in a pair of arrays (e.g x and y) */
+	Vector vector(double[] xs, double[] ys, int id) {
+		return new VectorView(xs, ys, id);
+	}
+
+	/** Makes a decayingVelocity that reads and writes the decaying velocity of one entity */
+	decayingVelocity decayingVelocity(int id) {
+		return new DecayingView(this, id);
+	}
+
+	/** Saves every entity's position as its previous position in 2 bulk copies, instead of one Sprite at a time */
+	public void savePreviousPositions() {
+		System.arraycopy(x, 0, previousX, 0, size);
+		System.arraycopy(y, 0, previousY, 0, size);
+	}//end savePreviousPositions
+
+	/** Moves an entity by its velocity straight through the arrays, the same as Sprite.update() for a sprite without a decaying velocity */
+	public void integrate(int id) {
+		totalX[id] = velocityX[id];
+		totalY[id] = velocityY[id];
+		x[id] += totalX[id];
+		y[id] += totalY[id];
+	}//end integrate
+
+	public boolean isFlagged(int id, int flag) {
+		return (flags[id] & flag) != 0;
+	}
+
+	public void setFlag(int id, int flag, boolean on) {
+		if(on) flags[id] |= flag;
+		else flags[id] &= ~flag;
+	}
+
+	/** Checks if 2 entities' boundaries overlap, the same test as Rectangle.overlaps */
+	public boolean overlaps(int a, int b) {
+		return !(x[a] + width[a] < x[b] || x[b] + width[b] < x[a] ||
+				 y[a] + height[a] < y[b] || y[b] + height[b] < y[a]);
+	}//end overlaps
+
+	/** Checks if entity a is resting on top of entity b, the same test as Rectangle.bottomSupported */
+	public boolean bottomSupported(int a, int b) {
+		return !(x[a] + width[a] < x[b] || width[b] + x[b] < x[a] ||
+				 y[a] + height[a] < y[b] || y[b] < y[a] + height[a] - 60);
+	}//end bottomSupported
+
+	public int size() {
+		return size;
+	}
+
+	public int capacity() {
+		return flags.length;
+	}
+
+	//A Vector whose components live in 2 of a store's arrays
+	private static class VectorView extends Vector {
+		private final double[] xs, ys;
+		private final int id;
+
+		private VectorView(double[] xs, double[] ys, int id) {
+			super(0, 0);
+			this.xs = xs;
+			this.ys = ys;
+			this.id = id;
+		}
+
+		@Override
+		public double getX() {
+			return xs[id];
+		}
+		@Override
+		public double getY() {
+			return ys[id];
+		}
+		@Override
+		public void setX(double x) {
+			xs[id] = x;
+		}
+		@Override
+		public void setY(double y) {
+			ys[id] = y;
+		}
+		@Override
+		public void set(double x, double y) {
+			xs[id] = x;
+			ys[id] = y;
+		}
+		@Override
+		public void set(Vector other) {
+			this.set(other.getX(), other.getY());
+		}
+		@Override
+		public void add(double x, double y) {
+			xs[id] += x;
+			ys[id] += y;
+		}
+		@Override
+		public void add(Vector other) {
+			this.add(other.getX(), other.getY());
+		}
+		@Override
+		public void addY(double y) {
+			ys[id] += y;
+		}
+	}//end VectorView
+
+	//The decaying velocity of an entity, kept in tempX, tempY, and decayRate
+	private static class DecayingView extends decayingVelocity {
+		private final double[] xs, ys, rates;
+		private final int id;
+
+		private DecayingView(EntityStore store, int id) {
+			super(0, 0, 0);
+			this.xs = store.tempX;
+			this.ys = store.tempY;
+			this.rates = store.decayRate;
+			this.id = id;
+		}
+
+		@Override
+		public double getX() {
+			return xs[id];
+		}
+		@Override
+		public double getY() {
+			return ys[id];
+		}
+		@Override
+		public void setX(double x) {
+			xs[id] = x;
+		}
+		@Override
+		public void setY(double y) {
+			ys[id] = y;
+		}
+		@Override
+		public void set(double x, double y) {
+			xs[id] = x;
+			ys[id] = y;
+		}
+		@Override
+		public void set(Vector other) {
+			this.set(other.getX(), other.getY());
+		}
+		@Override
+		public void add(double x, double y) {
+			xs[id] += x;
+			ys[id] += y;
+		}
+		@Override
+		public void add(Vector other) {
+			this.add(other.getX(), other.getY());
+		}
+		@Override
+		public void addY(double y) {
+			ys[id] += y;
+		}
+		@Override
+		public double getDecayRate() {
+			return rates[id];
+		}
+		@Override
+		public void setDecayRate(double decayRate) {
+			rates[id] = decayRate;
+		}
+	}//end DecayingView
+
+}//end EntityStore
@@ -0,0 +1,33 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** FrameEvent is a Java Flight Recorder event covering one frame of a Level, from the first tick it runs to the camera moving.
+ *  Recorded alongside the JVM's own events so a slow frame can be lined up with a GC pause or JIT compile.
+ *  */
+@Name("stretchgame.Frame")
+@Label("Frame")
+@Category({"Stretch Game", "Frames"})
+@Description("One frame of a level, its ticks and drawing")
+@StackTrace(false) //The stack is always the game loop, leaving it out keeps the event cheap
+public class FrameEvent extends jdk.jfr.Event {
+
+	@Label("Level")
+	int level;
+
+	@Label("Ticks")
+	@Description("Fixed ticks the frame ran to catch up to the time that passed")
+	int ticks;
+
+	@Label("Simulated Sprites")
+	@Description("Sprites updated by each tick, less than every surface when the level is streamed")
+	int simulated;
+
+	@Label("Sprites Drawn")
+	int drawn;
+
+}//end FrameEvent
@@ -0,0 +1,158 @@
+package application;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Locale;
+
+/** FrameTimer measures how long each phase of a frame takes, keeping rolling percentiles over the most recent frames.
+ *
+ *  Time is split by switching phases, every nanosecond between beginFrame() and endFrame() is counted towards whichever
+ *  phase was switched to last, so only one clock read is taken per switch and switching to the current phase is free.
+ *  */
+public class FrameTimer {
+
+	//The phases of a frame, ticks that run several times in one frame add up into the same phase
+	public static final int OTHER = 0;			//Anything not in another phase (e.g updating the health bar)
+	public static final int INPUT = 1;			//Reading held keys and applying them to the player
+	public static final int PHYSICS = 2;		//Moving and colliding every sprite that isn't an enemy
+	public static final int ENEMY_AI = 3;		//Enemy updates and removing defeated enemies
+	public static final int COLLECTIBLES = 4;	//Checking for and picking up collectibles
+	public static final int RENDER = 5;			//Drawing the background and sprites
+	public static final int CAMERA = 6;			//Moving the camera after drawing
+	public static final int FRAME = 7;			//The whole frame, not a phase that can be switched to
+	public static final String[] PHASE_NAMES = {"other", "input", "physics", "enemy ai", "collectibles", "render", "camera", "frame"};
+	private static final int PHASES = PHASE_NAMES.length;
+
+	public static final int WINDOW = 1200; //How many recent frames the percentiles cover, 20 seconds at 60 frames a second
+
+	private long[][] history = new long[PHASES][WINDOW]; //The time of each phase in the most recent frames, a ring buffer
+	private int next = 0; //Where the next frame is written in history
+	private int filled = 0; //How many frames of history are filled in
+
+	private long[] current = new long[PHASES]; //The time of each phase so far this frame
+	private int phase = OTHER; //The phase being timed
+	private long frameStart; //The nanotime the frame began
+	private long lastSwitch; //The nanotime of the last phase switch
+
+	private long frames = 0; //Frames measured since the last reset
+	private long[] totals = new long[PHASES]; //Every frame's time added up per phase, for the mean
+	private long[] maximums = new long[PHASES]; //The longest each phase has taken in one frame
+
+	private long[] sorted = new long[WINDOW]; //Scratch array the history is sorted in to find percentiles
+
+	/** Starts timing a frame in the OTHER phase */
+	public void beginFrame() {
+		Arrays.fill(current, 0);
+		phase = OTHER;
+		frameStart = System.nanoTime();
+		lastSwitch = frameStart;
+	}//end beginFrame
+
+	/** Switches to timing another phase
+	 * @param next One of the phase constants, besides FRAME
+	 * */
+	//PRE: beginFrame() has been called.
+	//POST: The time since the last switch is added to the phase that was being timed.
+	public void phase(int next) {
+		if(next == phase) return;
+
+		long now = System.nanoTime();
+		current[phase] += now - lastSwitch;
+		lastSwitch = now;
+		phase = next;
+	}//end phase
+
+	/** Stops timing the frame and adds it to the history */
+	//PRE: beginFrame() has been called.
+	//POST: The frame's phase times are the newest in history, replacing the oldest once the history is full.
+	public void endFrame() {
+		long now = System.nanoTime();
+		current[phase] += now - lastSwitch;
+		current[FRAME] = now - frameStart;
+		phase = OTHER;
+
+		for(int i = 0; i < PHASES; i++) {
+			history[i][next] = current[i];
+			totals[i] += current[i];
+			maximums[i] = Math.max(maximums[i], current[i]);
+		}//end for
+
+		next = (next + 1) % WINDOW;
+		filled = Math.min(filled + 1, WINDOW);
+		frames++;
+	}//end endFrame
+
+	/** Gets a percentile of a phase's time over the recent frames
+	 * @param phase One of the phase constants
+	 * @param percentile The percentile from 0 to 100 (e.g 99)
+	 * @return The time in nanoseconds, 0 if no frames have been measured
+	 * */
+	public long getPercentile(int phase, double percentile) {
+		if(filled == 0) return 0;
+
+		System.arraycopy(history[phase], 0, sorted, 0, filled);
+		Arrays.sort(sorted, 0, filled);
+
+		//Nearest rank, the smallest time at least percentile% of the frames are at or under
+		int rank = (int)Math.ceil(percentile / 100 * filled);
+		return sorted[Math.max(0, Math.min(rank, filled) - 1)];
+	}//end getPercentile
+
+	/** Gets the mean time of a phase over every frame since the last reset, in nanoseconds */
+	public long getMean(int phase) {
+		return frames == 0 ? 0 : totals[phase] / frames;
+	}
+
+	/** Gets the longest time a phase took in one frame since the last reset, in nanoseconds */
+	public long getMaximum(int phase) {
+		return maximums[phase];
+	}
+
+	public long getFrames() {
+		return frames;
+	}
+
+	/** Forgets every frame measured so far */
+	public void reset() {
+		next = 0;
+		filled = 0;
+		frames = 0;
+		Arrays.fill(totals, 0);
+		Arrays.fill(maximums, 0);
+	}//end reset
+
+	/** Formats the percentiles of every phase as lines of text, for an on screen overlay */
+	//POST: Returns one line per phase of its p50, p95, and p99 in milliseconds.
+	public String summary() {
+		StringBuilder text = new StringBuilder(String.format(Locale.ROOT, "%-13s %7s %7s %7s%n", "ms", "p50", "p95", "p99"));
+		for(int i = 0; i < PHASES; i++) {
+			text.append(String.format(Locale.ROOT, "%-13s %7.3f %7.3f %7.3f%n", PHASE_NAMES[i],
+					getPercentile(i, 50) / 1e6, getPercentile(i, 95) / 1e6, getPercentile(i, 99) / 1e6));
+		}//end for
+		return text.toString();
+	}//end summary
+
+	/** Writes the percentiles, mean, and maximum of every phase to a CSV file
+	 * @param file The file written, its folder is created if it doesn't exist
+	 * */
+	//POST: file holds a header row then one row per phase, all times in milliseconds.
+	public void writeCsv(File file) throws IOException {
+		if(file.getParentFile() != null) file.getParentFile().mkdirs();
+
+		PrintWriter out = new PrintWriter(new FileWriter(file));
+		try {
+			out.println("phase,p50_ms,p95_ms,p99_ms,mean_ms,max_ms,frames");
+			for(int i = 0; i < PHASES; i++) {
+				out.println(String.format(Locale.ROOT, "%s,%.4f,%.4f,%.4f,%.4f,%.4f,%d", PHASE_NAMES[i],
+						getPercentile(i, 50) / 1e6, getPercentile(i, 95) / 1e6, getPercentile(i, 99) / 1e6,
+						getMean(i) / 1e6, getMaximum(i) / 1e6, frames));
+			}//end for
+		} finally {
+			out.close();
+		}
+	}//end writeCsv
+
+}//end FrameTimer
@@ -0,0 +1,33 @@
+package application;
+
+/** GameClock is the one clock a level runs on. It only moves when the World is stepped, one tick at a time,
+ *  so everything timed by it (the level countdown, the time bonus) stops exactly when the level is paused
+ *  and plays out the same on every replay of the same inputs.
+ *  */
+public class GameClock {
+
+	public static final int TICKS_PER_SECOND = 60; //How many ticks make up one second of game time
+
+	private long ticks = 0; //The number of ticks stepped so far
+
+	//Moves the clock forward by one tick
+	void tick() {
+		ticks++;
+	}//end tick
+
+	//Returns whether the last tick finished a whole second of game time
+	public boolean isWholeSecond() {
+		return ticks > 0 && ticks % TICKS_PER_SECOND == 0;
+	}
+
+	//Returns the number of ticks stepped so far
+	public long getTicks() {
+		return ticks;
+	}
+
+	//Returns how many seconds of game time have passed
+	public double getSeconds() {
+		return (double)ticks / TICKS_PER_SECOND;
+	}
+
+}//end GameClock
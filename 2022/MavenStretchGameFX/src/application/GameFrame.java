@@ -1,5 +1,12 @@
 package application;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
@@ -14,6 +21,7 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Slider;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -37,8 +45,18 @@ public class GameFrame implements LevelObserver{
 	private final Stage primaryStage;
 
 	private Level activeLevel; //The current level object being loaded.
+	private int lastLevelNum = 0; //The level last switched to, kept after activeLevel is cleared so restarts can be told apart
+	private Level lastLevel; //The level last switched to, kept after activeLevel is cleared so restarting it only resets it
+	
+	//Loads the startup sounds, and the next level's file, pictures, and sounds while the victory screen is up, on a daemon thread so it never keeps the game open
+	private final ExecutorService backgroundLoader = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Background loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private Future<LevelResources> nextLevel; //The resources being loaded in the background, null if none are
+	private int nextLevelNum; //The level nextLevel is loading
 	private int currentLevelNum; //The current level the game is on represented as a number in order they come in.
-	private final int FINAL_LEVEL = 2; //The number of the final level, where the game ends.
 	private Font standardHeaderFont = new Font("Goudy Stout", 40);
 	private Font standardFont = Font.font("Arial", FontWeight.BOLD, 20);
 	
@@ -48,6 +66,15 @@ public class GameFrame implements LevelObserver{
 	
 	private double gameVolume = 50;
 	
+	//The menu screens are built once per resolution and shown again from then on, with only their score, time, and volume updated
+	private int scenesWidth, scenesHeight; //The resolution the cached scenes were built at
+	private Scene menuScene, settingsScene, deathScene, victoryScene; //null until first shown at the current resolution
+	private Slider volumeSlider; //The settings scene's volume slider
+	private ComboBox<String> resolutionSelection; //The settings scene's resolution drop down menu
+	private Popup resolutionPopup; //The settings scene's resolution confirmation
+	private Label victoryScore, victoryTime; //The victory scene's score and time
+	private Button nextLevelButton; //The victory scene's button to the next level, hidden on the last level
+	
 	//Coordinate variables used to re-center the window on where it last was
 	private double centerX;
 	private double centerY;
@@ -57,13 +84,20 @@ public class GameFrame implements LevelObserver{
 		this.primaryStage = primaryStage;
 	}
 	
-	/** Initializes the primaryStage by setting its title, icon, and then setting its scene to the game menu */
+	/** Initializes the primaryStage by setting its title, icon, and then showing a loading screen until the game menu is ready */
 	public void initialize() {
 		primaryStage.setTitle("THE STRETCH GAME");
-		Image windowIcon = new Image("Pictures/Slime.png");
+		Image windowIcon = ImageCache.get("Pictures/Slime.png");
 		primaryStage.getIcons().add(windowIcon);
-		this.createMenuScene();
-		primaryStage.setScene(this.createMenuScene());
+		
+		//Every menu picture and sound is loaded in the background while the loading screen shows how far along it is
+		AssetLoader assets = new AssetLoader(backgroundLoader);
+		primaryStage.setScene(this.createLoadingScene(assets));
+		assets.start(() -> {
+			primaryStage.setScene(this.menuScene());
+			this.realignCenter();
+			this.reportStartup(assets);
+		});
 		primaryStage.show();
 		primaryStage.centerOnScreen();
 		primaryStage.setResizable(false);
@@ -91,6 +125,42 @@ public class GameFrame implements LevelObserver{
 		
 	}
 	
+	//Creates the screen shown while the startup assets load, with a bar that fills as they finish
+	private Scene createLoadingScene(AssetLoader assets) {
+		VBox layout = new VBox(15);
+		Scene loading = new Scene(layout, screenWidth, screenHeight);
+		layout.setAlignment(Pos.CENTER);
+		layout.setStyle("-fx-background-color: black;");
+		
+		Label title = new Label("Loading...");
+		title.setFont(standardFont);
+		title.setTextFill(Color.WHITE);
+		
+		ProgressBar bar = new ProgressBar();
+		bar.setPrefWidth(screenWidth / 3);
+		bar.progressProperty().bind(assets.progressProperty());
+		
+		//count shows how many of the assets are done
+		Label count = new Label();
+		count.setFont(standardFont);
+		count.setTextFill(Color.WHITE);
+		assets.progressProperty().addListener((observable, oldProgress, newProgress) -> {
+			count.setText(assets.getLoaded() + " / " + assets.getTotal());
+		});
+		
+		layout.getChildren().addAll(title, bar, count);
+		return loading;
+	}//end createLoadingScene
+	
+	//Writes how long each startup asset took next to the frame times
+	private void reportStartup(AssetLoader assets) {
+		try {
+			assets.writeCsv(new File(Level.FRAME_TIMES_FOLDER, "startup.csv"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}//end reportStartup
+	
 	//Centers a window on where it last was
 	private void realignCenter() {
 		centerX = primaryStage.getX() + primaryStage.getWidth()/2;
@@ -111,13 +181,13 @@ public class GameFrame implements LevelObserver{
 		
 		//title is set to the logo graphic
 		Label title = new Label();
-		Image logo = new Image("Pictures/TitleLogo.png");
+		Image logo = ImageCache.get("Pictures/TitleLogo.png");
 		ImageView viewLogo = new ImageView(logo);
 		title.setGraphic(viewLogo);
 	
 		//quit is a button that will exit the program
 		Button quit = new Button();
-		Image quitGraphic = new Image("Pictures/quit.png");
+		Image quitGraphic = ImageCache.get("Pictures/quit.png");
 		ImageView viewQuitGraphic = new ImageView(quitGraphic);
 		quit.setGraphic(viewQuitGraphic);
 		quit.setOnAction(e -> {
@@ -128,7 +198,7 @@ public class GameFrame implements LevelObserver{
 	
 		//resume is a button that will continue any game that is actively in progress
 		Button resume = new Button();
-		Image resumeGraphic = new Image("Pictures/continuegame.png");
+		Image resumeGraphic = ImageCache.get("Pictures/continuegame.png");
 		ImageView viewResumeGraphic = new ImageView(resumeGraphic);
 		resume.setGraphic(viewResumeGraphic);
 		resume.setOnAction(e -> {
@@ -145,7 +215,7 @@ public class GameFrame implements LevelObserver{
 		
 		//startGame is a button that will load level 1
 		Button startGame = new Button();
-		Image startGameGraphic = new Image("Pictures/startgame.png");
+		Image startGameGraphic = ImageCache.get("Pictures/startgame.png");
 		ImageView viewStartGraphic = new ImageView(startGameGraphic);
 		startGame.setGraphic(viewStartGraphic);
 		startGame.setOnAction(e -> {
@@ -157,11 +227,11 @@ public class GameFrame implements LevelObserver{
 	
 		//sett is a button that loads the settings menu.
 		Button sett = new Button();
-		Image settGraphic = new Image("Pictures/settings.png");
+		Image settGraphic = ImageCache.get("Pictures/settings.png");
 		ImageView viewSettGraphic = new ImageView(settGraphic);
 		sett.setGraphic(viewSettGraphic);
 		sett.setOnAction(e -> {
-			primaryStage.setScene(createSettingsScene());
+			primaryStage.setScene(this.settingsScene());
 			this.realignCenter();
 		});
 		
@@ -191,8 +261,10 @@ public class GameFrame implements LevelObserver{
 		
 		ObservableList<String> resolutions = FXCollections.observableArrayList("1280 x 1024", "1366 x 768", "1600 x 900", "1920 x 1080"); //This is a list of all the items in the resolutionSelection drop down menu
 		ComboBox<String> resolutionSelection = new ComboBox<String>(resolutions); //This is a drop down menu for the possible resolution selections
+		this.resolutionSelection = resolutionSelection;
 		
 		Popup pop = new Popup(); //Pop is a pop up window that will ask for the confirmation of a resolution change
+		resolutionPopup = pop;
 		
 		//confirmationQuery displays a prompt asking if the selected resolution should be applied
 		Label confirmationQuery = new Label();
@@ -246,7 +318,7 @@ public class GameFrame implements LevelObserver{
 			pop.hide(); //"Gets rid of" the popup upon confirmation
 			
 			//The settings menu is recreated with the selected screen size
-			primaryStage.setScene(this.createSettingsScene());
+			primaryStage.setScene(this.settingsScene());
 			primaryStage.setX(centerX - primaryStage.getWidth()/2);
 			primaryStage.setY(centerY - primaryStage.getHeight()/2);
 		});
@@ -292,6 +364,9 @@ public class GameFrame implements LevelObserver{
 
 			@Override
 			public void handle(ActionEvent arg0) {
+				//The selection is cleared each time the settings are shown, which isn't a choice to confirm
+				if(resolutionSelection.getValue() == null) return;
+				
 				confirmationQuery.setText("\n  Are you sure you want to change the resolution to "+resolutionSelection.getValue() + "?");
 				pop.setX(primaryStage.getX() + Math.abs(primaryStage.getWidth()/2) - 300);
 				pop.setY(primaryStage.getY() + Math.abs(primaryStage.getHeight()/2) - 40);
@@ -304,11 +379,11 @@ public class GameFrame implements LevelObserver{
 		
 		//goBack is a button that changes the scene to the main menu.
 		Button goBack = new Button();
-		Image returnGraphic = new Image("Pictures/goback.png");
+		Image returnGraphic = ImageCache.get("Pictures/goback.png");
 		ImageView viewReturnGraphic = new ImageView(returnGraphic);
 		goBack.setGraphic(viewReturnGraphic);
 		goBack.setOnAction(e -> {
-			primaryStage.setScene(this.createMenuScene());
+			primaryStage.setScene(this.menuScene());
 			this.realignCenter();
 			 
 			pop.hide();
@@ -318,6 +393,7 @@ public class GameFrame implements LevelObserver{
 		
 		//soundVolume is a slider that controls the games overall volume
 		Slider soundVolume = new Slider();
+		volumeSlider = soundVolume;
 		soundVolume.setMaxWidth(200);
 		soundVolume.setMax(100);
 		soundVolume.setValue(this.gameVolume);
@@ -384,7 +460,7 @@ public class GameFrame implements LevelObserver{
 				
 		//deathStartOver is a button that restarts the current level
 		Button startOver = new Button();
-		Image startOverGraphic = new Image("Pictures/restart.png");
+		Image startOverGraphic = ImageCache.get("Pictures/restart.png");
 		ImageView viewStartOverGraphic = new ImageView(startOverGraphic);
 		startOver.setGraphic(viewStartOverGraphic);
 		startOver.setOnAction(e -> {
@@ -406,8 +482,8 @@ public class GameFrame implements LevelObserver{
 		
 	}//end createDeathScene
 	
-	//Creates a new victory scene for the player with updated dimensions, time, and score.
-	private Scene createVictoryScene(double score, double time) {							
+	//Creates a new victory scene for the player with updated dimensions, its score and time are set by victoryScene()
+	private Scene createVictoryScene() {							
 		StackPane layout = new StackPane();
 		layout.getChildren().add(this.drawBackgroundImage());
 		Scene victory = new Scene(layout, screenWidth, screenHeight);
@@ -416,12 +492,12 @@ public class GameFrame implements LevelObserver{
 		victoryTitle.setFont(standardHeaderFont);
 		
 		Label displayScore = new Label();
-		displayScore.setText("Level Score: " + score);
 		displayScore.setFont(standardFont);
+		victoryScore = displayScore;
 		
 		Label displayTime = new Label();
-		displayTime.setText("Level Time: " + time);
 		displayTime.setFont(standardFont);
+		victoryTime = displayTime;
 				
 		//restart is a box that formats the buttons and labels vertically
 		VBox restart = new VBox(10);
@@ -431,7 +507,7 @@ public class GameFrame implements LevelObserver{
 				
 		//startOver is a button that restarts game
 		Button startOver = new Button();
-		Image startOverGraphic = new Image("Pictures/restart.png");
+		Image startOverGraphic = ImageCache.get("Pictures/restart.png");
 		ImageView viewStartOverGraphic = new ImageView(startOverGraphic);
 		startOver.setGraphic(viewStartOverGraphic);
 		startOver.setOnAction(e -> {
@@ -444,48 +520,142 @@ public class GameFrame implements LevelObserver{
 		
 		restart.getChildren().addAll(victoryTitle, displayScore, displayTime);
 		
-		//Checks if the current level is the final one, if it isn't a button to move to the next level is added to the scene
-		if(currentLevelNum < FINAL_LEVEL) {
-			//startNextLevel is a button that starts the next level
-			Button startNextLevel = new Button();
-			Image nextGraphic = new Image("Pictures/nextlevel.png");
-			ImageView viewNextGraphic = new ImageView(nextGraphic);
-			startNextLevel.setGraphic(viewNextGraphic);
-			
-			startNextLevel.setOnAction(e -> {
-				currentLevelNum++;
-				this.switchLevelInstance(currentLevelNum);
-			});
-			startNextLevel.addEventFilter(KeyEvent.ANY, Event::consume);
-			restart.getChildren().add(startNextLevel);
-		}//end if
+		//startNextLevel is a button that starts the next level, victoryScene() hides it on the final level
+		Button startNextLevel = new Button();
+		Image nextGraphic = ImageCache.get("Pictures/nextlevel.png");
+		ImageView viewNextGraphic = new ImageView(nextGraphic);
+		startNextLevel.setGraphic(viewNextGraphic);
+		
+		startNextLevel.setOnAction(e -> {
+			currentLevelNum++;
+			this.switchLevelInstance(currentLevelNum);
+		});
+		startNextLevel.addEventFilter(KeyEvent.ANY, Event::consume);
+		nextLevelButton = startNextLevel;
 		
-		restart.getChildren().addAll(victoryReturn, startOver);
+		restart.getChildren().addAll(startNextLevel, victoryReturn, startOver);
 		layout.getChildren().addAll(restart);
 		
 		return victory;
 	}//end createVictoryScene
 	
+	//Drops the cached scenes if the resolution has changed since they were built, so each is built again at the new size
+	private void checkSceneResolution() {
+		if(scenesWidth == screenWidth && scenesHeight == screenHeight) return;
+		
+		menuScene = null;
+		settingsScene = null;
+		deathScene = null;
+		victoryScene = null;
+		scenesWidth = screenWidth;
+		scenesHeight = screenHeight;
+	}//end checkSceneResolution
+	
+	//Returns the main menu at the current resolution, building it the first time
+	private Scene menuScene() {
+		this.checkSceneResolution();
+		if(menuScene == null) menuScene = this.createMenuScene();
+		return menuScene;
+	}//end menuScene
+	
+	//Returns the settings menu at the current resolution showing the current volume, building it the first time
+	private Scene settingsScene() {
+		this.checkSceneResolution();
+		if(settingsScene == null) settingsScene = this.createSettingsScene();
+		
+		volumeSlider.setValue(gameVolume);
+		resolutionSelection.setValue(null);
+		resolutionPopup.hide();
+		return settingsScene;
+	}//end settingsScene
+	
+	//Returns the death screen at the current resolution, building it the first time
+	private Scene deathScene() {
+		this.checkSceneResolution();
+		if(deathScene == null) deathScene = this.createDeathScene();
+		return deathScene;
+	}//end deathScene
+	
+	//Returns the victory screen at the current resolution showing a level's score and time, building it the first time
+	private Scene victoryScene(double score, double time) {
+		this.checkSceneResolution();
+		if(victoryScene == null) victoryScene = this.createVictoryScene();
+		
+		victoryScore.setText("Level Score: " + score);
+		victoryTime.setText("Level Time: " + time);
+		
+		//Checks if the current level is the final one (no level file follows it), if it isn't the button to move to the next level is shown
+		boolean hasNextLevel = LevelLoader.exists(currentLevelNum + 1);
+		nextLevelButton.setVisible(hasNextLevel);
+		nextLevelButton.setManaged(hasNextLevel);
+		return victoryScene;
+	}//end victoryScene
+	
 	//"Switches" the scene to a level by creating the level corresponding to currentLevel then setting primaryStage to its level scene
+	//Starting the last level over at the same resolution resets it instead, which reuses its scene, canvas, sounds, and pictures
 	private void switchLevelInstance(int currentLevel) {
-		Level levelInstance = new Level(screenWidth, screenHeight, currentLevel, gameVolume);
-		levelInstance.subscribeObserver(this);
+		SceneSwitchEvent event = new SceneSwitchEvent();
+		event.begin();
+		Level levelInstance;
+		if(lastLevel != null && lastLevel.getLevelNum() == currentLevel && lastLevel.fits(screenWidth, screenHeight)) {
+			levelInstance = lastLevel;
+			levelInstance.reset(gameVolume);
+		}//end if
+		else {
+			levelInstance = new Level(screenWidth, screenHeight, this.takeResources(currentLevel), gameVolume);
+			levelInstance.subscribeObserver(this);
+		}//end else
+		lastLevel = levelInstance;
 		
 		activeLevel = levelInstance; //maintains reference to the level created for the purposes of the continue game option in the main menu
 		
 		primaryStage.setScene(levelInstance.getLevelScene());
 		this.realignCenter();
+		
+		event.end();
+		if(event.shouldCommit()) {
+			event.fromLevel = lastLevelNum;
+			event.toLevel = currentLevel;
+			event.restart = lastLevelNum == currentLevel;
+			event.commit();
+		}//end if
+		lastLevelNum = currentLevel;
 	}//end switchLevelInstance
 	
+	//Starts loading a level's resources in the background if there is such a level, so switching to it only has to build its scene
+	private void preloadLevel(int levelNum) {
+		if(!LevelLoader.exists(levelNum)) return;
+		nextLevelNum = levelNum;
+		nextLevel = backgroundLoader.submit(() -> LevelResources.load(levelNum));
+	}//end preloadLevel
+	
+	//Returns a level's resources, waiting on the preload if it is loading that level and loading them now otherwise
+	private LevelResources takeResources(int levelNum) {
+		Future<LevelResources> preload = nextLevel;
+		nextLevel = null;
+		
+		if(preload != null && nextLevelNum == levelNum) {
+			try {
+				return preload.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				e.printStackTrace(); //Loading again below reports the same problem where the level is switched to
+			}
+		}//end if
+		
+		return LevelResources.load(levelNum);
+	}//end takeResources
+	
 	//Helper method that creates and returns a button that returns to the main menu
 	private Button goBackButton() {
 		Button goBack = new Button();
-		Image backGraphic = new Image("Pictures/goback.png");
+		Image backGraphic = ImageCache.get("Pictures/goback.png");
 		ImageView viewBackGraphic = new ImageView(backGraphic);
 		goBack.setGraphic(viewBackGraphic);
 		
 		goBack.setOnAction(e -> {
-			primaryStage.setScene(this.createMenuScene());
+			primaryStage.setScene(this.menuScene());
 			this.realignCenter();
 		});
 		
@@ -499,7 +669,7 @@ public class GameFrame implements LevelObserver{
 	private Canvas drawBackgroundImage() {
 		Canvas menuBackground = new Canvas(2000, 1344);
 		GraphicsContext graphics = menuBackground.getGraphicsContext2D();
-		Image backgroundImage = new Image("Pictures/MenuBackground.jpg");
+		Image backgroundImage = ImageCache.get("Pictures/MenuBackground.jpg");
 		graphics.drawImage(backgroundImage, 1000 - backgroundImage.getWidth()/2, 672 - backgroundImage.getHeight()/2);
 		return menuBackground;
 	}//end drawBackgroundImage
@@ -518,21 +688,22 @@ public class GameFrame implements LevelObserver{
 		//Decides what scene should be switched to from flag set by a level
 		switch(switchCase) {
 		
-		case 0: primaryStage.setScene(this.createMenuScene());
+		case 0: primaryStage.setScene(this.menuScene());
 				this.realignCenter();
 				 
 				break;
 				
-		case 1: primaryStage.setScene(this.createDeathScene());
+		case 1: primaryStage.setScene(this.deathScene());
 				this.realignCenter();
 				 
 				activeLevel = null;
 				break;
 				
-		case 2: primaryStage.setScene(this.createVictoryScene(score, time));
+		case 2: primaryStage.setScene(this.victoryScene(score, time));
 				this.realignCenter();
 				 
 				activeLevel = null;
+				this.preloadLevel(currentLevelNum + 1); //The next level loads while the player looks at their score
 				break;
 				
 		default: throw new IllegalArgumentException("The number " + switchCase + " IS NOT a valid notify gameGrame can switch scene based on");
@@ -0,0 +1,54 @@
+package application;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.image.Image;
+
+/** ImageCache is a registry of every picture the game has loaded, keyed by path, so each picture file is only decoded once */
+public class ImageCache {
+
+	//Every picture decoded so far, keyed by its path. It is concurrent so the next level's pictures can be decoded on another thread
+	private static ConcurrentHashMap<String, Image> images = new ConcurrentHashMap<String, Image>();
+
+	//ImageCache is only used statically
+	private ImageCache() {}
+
+	/** Gets the picture at a path, decoding it only the first time it is asked for
+	 * @param path The path to the picture (e.g "Pictures/Slime.png")
+	 * */
+	//PRE: Called from any thread.
+	//POST: Returns the same Image object for every call with the same path, a call for a picture another thread is decoding waits for it.
+	public static Image get(String path) {
+		Image image = images.get(path);
+		if(image == null) image = images.computeIfAbsent(path, Image::new);
+		return image;
+	}//end get
+
+	/** Starts decoding the picture at a path on JavaFX's background loading threads, unless it was already decoded or started
+	 * @param path The path to the picture (e.g "Pictures/Slime.png")
+	 * */
+	//PRE: Called from any thread once the JavaFX toolkit has started.
+	//POST: Returns the picture, which may still be loading (see Image.getProgress()). get() returns the same Image from then on.
+	public static Image load(String path) {
+		Image image = images.get(path);
+		if(image == null) image = images.computeIfAbsent(path, picture -> new Image(picture, true));
+		return image;
+	}//end load
+
+	/** Checks if a picture has already been decoded
+	 * @param path The path to the picture
+	 * */
+	public static boolean contains(String path) {
+		return images.containsKey(path);
+	}
+
+	/** Removes every picture from the cache so they can be garbage collected */
+	public static void clear() {
+		images.clear();
+	}
+
+	public static int size() {
+		return images.size();
+	}
+
+}//end ImageCache
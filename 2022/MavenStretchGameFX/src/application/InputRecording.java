@@ -0,0 +1,191 @@
+package application;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/** InputRecording is the World input mask of every tick of a level, so the level can be played again exactly without a display.
+ *
+ *  Held keys stay the same for many ticks at a time, so ticks are kept as runs of the same mask. The file is:
+ *  	int magic ("SREC"), short version, short levelNum, double chunkWidth, int chunkRadius
+ *  	int runCount, then per run: byte mask, then the run's length in ticks 7 bits at a time (high bit set if more follow)
+ *  */
+public class InputRecording {
+
+	public static final int MAGIC = 0x53524543; //"SREC"
+	public static final short VERSION = 1;
+
+	private final int levelNum; //The level the inputs were recorded on
+	private final double chunkWidth; //How the World was streamed, which entities are simulated depends on it
+	private final int chunkRadius;
+
+	private int[] masks = new int[64]; //The input mask of each run
+	private int[] lengths = new int[64]; //How many ticks in a row each run's mask was stepped with
+	private int runCount;
+	private long ticks; //Every tick recorded
+
+	/** Constructs an empty InputRecording
+	 * @param levelNum The level being recorded
+	 * @param chunkWidth The width of the chunks the level's World is streamed in, 0 if it isn't streamed
+	 * @param chunkRadius How many chunks on each side of the player are simulated
+	 * */
+	public InputRecording(int levelNum, double chunkWidth, int chunkRadius) {
+		this.levelNum = levelNum;
+		this.chunkWidth = chunkWidth;
+		this.chunkRadius = chunkRadius;
+	}//end InputRecording constructor
+
+	/** Adds one tick to the end of the recording
+	 * @param inputs The input mask the World was stepped with
+	 * */
+	public void record(int inputs) {
+		this.addRun(inputs, 1);
+	}//end record
+
+	//Adds ticks stepped with the same mask, joining them onto the last run if it had that mask too
+	private void addRun(int mask, int length) {
+		ticks += length;
+		if(runCount > 0 && masks[runCount - 1] == mask) {
+			lengths[runCount - 1] += length;
+			return;
+		}//end if
+
+		if(runCount == masks.length) {
+			masks = Arrays.copyOf(masks, runCount * 2);
+			lengths = Arrays.copyOf(lengths, runCount * 2);
+		}//end if
+		masks[runCount] = mask;
+		lengths[runCount++] = length;
+	}//end addRun
+
+	/** Creates a headless World the recording can be replayed on, set up the same way as the one it was recorded on */
+	//POST: Returns a started World of the recorded level without any pictures. Throws an IllegalArgumentException if the level can't be read.
+	public World createWorld() {
+		World world = new World();
+		try {
+			LevelLoader.load(levelNum, world, false);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The level " + levelNum + " couldn't be read!", e);
+		}
+
+		if(chunkWidth > 0) world.setStreaming(chunkWidth, chunkRadius);
+		world.start();
+		return world;
+	}//end createWorld
+
+	/** Steps a World with every recorded tick, as fast as it can
+	 * @param world A World from createWorld() that hasn't been stepped yet
+	 * @return What the last step returned, a World status constant
+	 * */
+	//POST: world is stepped once per recorded tick, stopping early if the level ends.
+	public int replay(World world) {
+		int status = World.RUNNING;
+		for(int i = 0; i < runCount; i++) {
+			for(int j = 0; j < lengths[i]; j++) {
+				status = world.step(masks[i]);
+				if(status != World.RUNNING) return status;
+			}//end for
+		}//end for
+		return status;
+	}//end replay
+
+	/** Writes the recording to a file
+	 * @param file Where the recording is written, its folder is created if needed
+	 * */
+	public void write(File file) throws IOException {
+		if(file.getParentFile() != null) file.getParentFile().mkdirs();
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			this.write(out);
+		} finally {
+			out.close();
+		}
+	}//end write
+
+	/** Writes the recording to a stream
+	 * @param stream Where the recording is written, left open
+	 * */
+	public void write(OutputStream stream) throws IOException {
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeShort(levelNum);
+		out.writeDouble(chunkWidth);
+		out.writeInt(chunkRadius);
+
+		out.writeInt(runCount);
+		for(int i = 0; i < runCount; i++) {
+			out.writeByte(masks[i]);
+			for(int length = lengths[i]; ; length >>>= 7) {
+				if(length < 0x80) {
+					out.writeByte(length);
+					break;
+				}//end if
+				out.writeByte((length & 0x7F) | 0x80);
+			}//end for
+		}//end for
+		out.flush();
+	}//end write
+
+	/** Reads a recording from a file
+	 * @param file A file written by write()
+	 * */
+	public static InputRecording read(File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}//end read
+
+	/** Reads a recording from a stream
+	 * @param stream A recording written by write(), left open
+	 * */
+	//POST: Returns the recording. Throws an IllegalArgumentException if stream isn't a recording this version can read.
+	public static InputRecording read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(stream);
+		if(in.readInt() != MAGIC) throw new IllegalArgumentException("Not an input recording!");
+		short version = in.readShort();
+		if(version != VERSION) throw new IllegalArgumentException("Unsupported input recording version " + version + "!");
+
+		InputRecording recording = new InputRecording(in.readShort(), in.readDouble(), in.readInt());
+		int runs = in.readInt();
+		for(int i = 0; i < runs; i++) {
+			int mask = in.readUnsignedByte();
+			int length = 0;
+			for(int shift = 0; ; shift += 7) {
+				int next = in.readUnsignedByte();
+				length |= (next & 0x7F) << shift;
+				if((next & 0x80) == 0) break;
+			}//end for
+
+			recording.addRun(mask, length);
+		}//end for
+		return recording;
+	}//end read
+
+	public int getLevelNum() {
+		return levelNum;
+	}
+
+	//Returns how many ticks have been recorded
+	public long getTicks() {
+		return ticks;
+	}
+
+	//Returns how many runs of the same input mask the ticks were kept as
+	public int getRunCount() {
+		return runCount;
+	}
+
+}//end InputRecording
@@ -0,0 +1,64 @@
+package application;
+
+import javafx.scene.input.KeyCode;
+
+/** InputState tracks which keys are held down as one bit per KeyCode, and turns them into the World input mask once per tick.
+ *  Pressing, releasing, and checking a key are a single bit operation, so key events and ticks never search a list or make Strings.
+ *  */
+public class InputState {
+
+	//Keys held down every tick the World bit is set for
+	private static final KeyCode LEFT = KeyCode.A;
+	private static final KeyCode RIGHT = KeyCode.D;
+	private static final KeyCode JUMP = KeyCode.W;
+	//Keys that toggle the player's size on the tick after they are released
+	private static final KeyCode GROW = KeyCode.E;
+	private static final KeyCode SHRINK = KeyCode.Q;
+
+	private final long[] held = new long[(KeyCode.values().length + 63) / 64]; //Bit ordinal() of each KeyCode is set while it is held
+	private int pendingToggles; //World.INPUT_GROW and INPUT_SHRINK bits from key releases waiting for the next tick
+
+	/** Marks a key as held down
+	 * @param key The key that was pressed
+	 * */
+	public void press(KeyCode key) {
+		held[key.ordinal() >>> 6] |= 1L << key.ordinal();
+	}//end press
+
+	/** Marks a key as let go, queuing a size toggle if it was the grow or shrink key
+	 * @param key The key that was released
+	 * */
+	public void release(KeyCode key) {
+		held[key.ordinal() >>> 6] &= ~(1L << key.ordinal());
+
+		if(key == GROW) pendingToggles |= World.INPUT_GROW;
+		if(key == SHRINK) pendingToggles |= World.INPUT_SHRINK;
+	}//end release
+
+	//Returns whether a key is held down right now
+	public boolean isHeld(KeyCode key) {
+		return (held[key.ordinal() >>> 6] & 1L << key.ordinal()) != 0;
+	}
+
+	/** Takes the input for one tick */
+	//PRE: Called once per tick, right before the World is stepped.
+	//POST: Returns the World input mask for the keys held right now plus any size toggles since the last tick, which are then cleared.
+	public int latch() {
+		int mask = pendingToggles;
+		pendingToggles = 0;
+
+		if(this.isHeld(LEFT)) mask |= World.INPUT_LEFT;
+		if(this.isHeld(RIGHT)) mask |= World.INPUT_RIGHT;
+		if(this.isHeld(JUMP)) mask |= World.INPUT_JUMP;
+
+		return mask;
+	}//end latch
+
+	/** Lets go of every key without queuing any toggles, for when the level is paused or resumed */
+	public void clear() {
+		for(int i = 0; i < held.length; i++)
+			held[i] = 0;
+		pendingToggles = 0;
+	}//end clear
+
+}//end InputState
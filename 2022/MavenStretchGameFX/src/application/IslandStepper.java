@@ -0,0 +1,362 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/** IslandStepper splits the bodies of a World into islands that can't touch each other during a tick, and steps the
+ *  islands side by side on a ForkJoinPool.
+ *
+ *  Every PhysicsSprite in collision range, and every other simulated sprite that is moving, is given a reach around its
+ *  hitbox, covering how far it could move, be pushed, or look for something to land on in one tick (and an enemy's
+ *  detection area). Sprites whose reaches overlap are joined into one island, so nothing that happens in one island
+ *  reaches another. Each island updates its own sprites in the World's order against a broadphase of just those sprites
+ *  and the still surfaces around them, so the result is the same as updating every sprite in order on one thread.
+ *  Tallies are then added up island by island, in order.
+ *
+ *  Still surfaces are shared by every island, so they are only ever read while islands are stepped: their hitboxes are
+ *  brought up to date before the islands start, and updating one changes nothing, so they are updated beforehand.
+ *  */
+public class IslandStepper {
+
+	private static final double LANDING_RANGE = 61; //How far below itself a body looks for something to land on, plus a pixel
+	private static final double MAX_DECAYING_SPEED = 20; //The fastest a collision can make a body move, see PhysicsSprite.collide
+	private static final double DETECTION_RANGE = 300; //How far past its hitbox an enemy looks for the player, see Enemy.sizeZones
+	private static final int GRAIN = 32; //Islands with fewer bodies than this between them are stepped in one task
+
+	private final ForkJoinPool pool;
+
+	private ArrayList<Reach> reaches = new ArrayList<Reach>(); //One per body in collision range or moving sprite this tick, in the World's order
+	private Reach[] byLeft = new Reach[16]; //The reaches of this tick sorted by left edge
+	private int sortedCount; //How many reaches byLeft held last tick, when it holds as many again they are the same ones
+	private int bodyCount;
+
+	private ArrayList<Island> islands = new ArrayList<Island>(); //The islands of this tick come first, the rest are kept to reuse
+	private int[] bodiesBefore = new int[16]; //How many bodies are in the islands before each one, to split the work evenly
+	private IdentityHashMap<Sprite, Island> islandOf = new IdentityHashMap<Sprite, Island>(); //The island each sprite with a reach is in this tick
+	private ArrayList<Sprite> still = new ArrayList<Sprite>(); //Simulated sprites that aren't bodies and aren't moving this tick
+	private int islandCount;
+	private int largestIsland;
+	private double speedup = 1;
+
+	private ArrayList<Sprite> found = new ArrayList<Sprite>(); //Scratch list the surfaces around an island are found in
+	private ArrayList<StepIslands> tasks = new ArrayList<StepIslands>(); //The tasks of this tick come first, the rest are kept to reuse
+	private int taskCount;
+
+	//A sprite and everything it could reach during this tick
+	private static class Reach {
+		private Sprite sprite;
+		private int index; //Its position in the World's order
+		private boolean simulated; //False for frozen bodies that are in collision range but not updated
+		private double minX, minY, maxX, maxY;
+		private Reach parent; //Leads to the reach earliest in order of everything joined with this one
+		private Island island;
+	}//end Reach
+
+	//Sprites that might touch each other this tick, and the broadphase their bodies search while being updated
+	private static class Island {
+		private ArrayList<Reach> members = new ArrayList<Reach>(); //In the World's order
+		private SweepAndPrune broadphase = new SweepAndPrune();
+		private Rectangle area = new Rectangle(0, 0, 0, 0); //Covers every member's reach and the surfaces they could land on
+		private StepCounts counts = new StepCounts();
+		private long nanos; //How long updating it took
+	}//end Island
+
+	private static final Comparator<Reach> BY_LEFT = new Comparator<Reach>() {
+		public int compare(Reach a, Reach b) {
+			return Double.compare(a.minX, b.minX);
+		}
+	};
+
+	/** Constructs an IslandStepper
+	 * @param pool The pool islands are stepped on
+	 * */
+	public IslandStepper(ForkJoinPool pool) {
+		this.pool = pool;
+	}//end IslandStepper constructor
+
+	/** Updates every simulated sprite for one tick, with islands of bodies updated side by side
+	 * @param world The World being stepped, which updates each sprite
+	 * @param surfaces Every surface in collision range
+	 * @param simulated The surfaces updated this tick, in the same order as surfaces
+	 * @param broadphase The World's broadphase, which every body searches outside of this step
+	 * @param counts The tally every island's work is added to
+	 * @return false if there were fewer than 2 islands, nothing has been updated and the World should update everything in order
+	 * */
+	//PRE: broadphase is up to date with every surface.
+	//POST: Every simulated sprite is updated the same as if it had been updated in order, and broadphase has caught up with them.
+	boolean step(World world, ArrayList<Sprite> surfaces, ArrayList<Sprite> simulated, Broadphase broadphase, StepCounts counts) {
+		//With one processor and one pool thread splitting the bodies up only costs time, a bigger pool still splits them on any machine
+		if(pool.getParallelism() < 2 && Runtime.getRuntime().availableProcessors() < 2) {
+			islandCount = largestIsland = 0;
+			speedup = 1;
+			return false;
+		}//end if
+
+		this.gather(surfaces, simulated);
+		this.join();
+		this.group();
+		if(islandCount < 2) {
+			speedup = 1;
+			return false;
+		}//end if
+
+		//Updating a still sprite changes nothing anything else reads, so it makes no difference that they go first
+		for(int i = 0; i < still.size(); i++)
+			world.simulate(still.get(i), counts);
+
+		//Every island's broadphase is filled before anything moves, so no island ever reads what another is moving
+		for(int i = 0; i < islandCount; i++)
+			this.fill(islands.get(i), broadphase);
+
+		taskCount = 0;
+		StepIslands root = this.plan(world, 0, islandCount);
+		long start = System.nanoTime();
+		pool.invoke(root);
+		long wall = System.nanoTime() - start;
+
+		long work = 0;
+		for(int i = 0; i < islandCount; i++) {
+			Island island = islands.get(i);
+			work += island.nanos;
+			counts.add(island.counts);
+			for(int j = 0; j < island.members.size(); j++) {
+				Sprite member = island.members.get(j).sprite;
+				//Moving scenery was only updated in the island's broadphase, so the World's catches up with it here
+				if(member instanceof PhysicsSprite) ((PhysicsSprite)member).setBroadphase(broadphase);
+				else broadphase.update(member);
+			}//end for
+			island.broadphase.clear();
+		}//end for
+		speedup = wall > 0 ? (double)work / wall : 1;
+
+		broadphase.refresh();
+		return true;
+	}//end step
+
+	//POST: reaches holds a reach for every body in surfaces and every moving simulated sprite, in order, marked with whether it is simulated.
+	//      Every other simulated sprite is in still.
+	private void gather(ArrayList<Sprite> surfaces, ArrayList<Sprite> simulated) {
+		//A body can be pushed up to the width of whatever pushes it plus its own, so the largest body sets how far that can be
+		double largest = 0;
+		for(int i = 0; i < surfaces.size(); i++) {
+			Sprite sprite = surfaces.get(i);
+			if(sprite instanceof PhysicsSprite || sprite.isMoving()) largest = Math.max(largest, Math.max(sprite.getBoundaryWidth(), sprite.getBoundaryHeight()));
+		}//end for
+
+		bodyCount = 0;
+		still.clear();
+		int next = 0; //simulated is in the same order as surfaces, so walking both at once finds which surfaces are simulated
+		for(int i = 0; i < surfaces.size(); i++) {
+			Sprite sprite = surfaces.get(i);
+			boolean isSimulated = next < simulated.size() && simulated.get(next) == sprite;
+			if(isSimulated) next++;
+			if(!(sprite instanceof PhysicsSprite)) {
+				//Frozen scenery isn't updated and still scenery isn't changed by an update, so neither needs a place in an island
+				if(!isSimulated) continue;
+				if(!sprite.isMoving()) {
+					still.add(sprite);
+					continue;
+				}//end if
+			}//end if
+
+			if(bodyCount == reaches.size()) reaches.add(new Reach());
+			Reach reach = reaches.get(bodyCount);
+			reach.sprite = sprite;
+			reach.index = bodyCount++;
+			reach.simulated = isSimulated;
+			reach.parent = reach;
+
+			//How far it can move on its own, be pushed, and look below itself this tick
+			double speed = Math.abs(sprite.getVelocityX()) + Math.abs(sprite.getVelocityY()) + MAX_DECAYING_SPEED;
+			if(sprite instanceof PhysicsSprite) speed += ((PhysicsSprite)sprite).getGravity();
+			if(sprite.getTempVelocity() != null) speed += Math.abs(sprite.getTempVelocity().getX()) + Math.abs(sprite.getTempVelocity().getY());
+			double pad = speed + 2 * largest + LANDING_RANGE;
+			if(sprite instanceof Enemy) pad += DETECTION_RANGE;
+
+			reach.minX = sprite.getBoundaryX() - pad;
+			reach.minY = sprite.getBoundaryY() - pad;
+			reach.maxX = sprite.getBoundaryX() + sprite.getBoundaryWidth() + pad;
+			reach.maxY = sprite.getBoundaryY() + sprite.getBoundaryHeight() + pad;
+		}//end for
+	}//end gather
+
+
+	//POST: Every pair of reaches that overlap leads to the same reach.
+	private void join() {
+		//Bodies barely move in a tick, so last tick's order only needs an insertion sort, which unlike Arrays.sort never allocates
+		if(sortedCount == bodyCount) {
+			for(int i = 1; i < bodyCount; i++) {
+				Reach reach = byLeft[i];
+				int j = i - 1;
+				for(; j >= 0 && byLeft[j].minX > reach.minX; j--)
+					byLeft[j + 1] = byLeft[j];
+				byLeft[j + 1] = reach;
+			}//end for
+		}//end if
+		else {
+			if(byLeft.length < bodyCount) byLeft = new Reach[bodyCount * 2];
+			for(int i = 0; i < bodyCount; i++)
+				byLeft[i] = reaches.get(i);
+			Arrays.sort(byLeft, 0, bodyCount, BY_LEFT);
+			sortedCount = bodyCount;
+		}//end else
+
+		//Only reaches that start before one ends can overlap it, so each one is checked against the next few to the right
+		for(int i = 0; i < bodyCount; i++) {
+			Reach a = byLeft[i];
+			for(int j = i + 1; j < bodyCount && byLeft[j].minX <= a.maxX; j++) {
+				Reach b = byLeft[j];
+				if(b.minY <= a.maxY && b.maxY >= a.minY) this.union(a, b);
+			}//end for
+		}//end for
+	}//end join
+
+	//POST: The islands of this tick are the first islandCount islands, in the order of their first body, each with its members in order.
+	private void group() {
+		islandCount = 0;
+		largestIsland = 0;
+		islandOf.clear();
+
+		//The reach leading an island is always its first member, so islands are made as their first member is reached
+		for(int i = 0; i < bodyCount; i++) {
+			Reach reach = reaches.get(i);
+			Reach root = this.find(reach);
+			if(root == reach) {
+				if(islandCount == islands.size()) islands.add(new Island());
+				reach.island = islands.get(islandCount++);
+				reach.island.members.clear();
+				reach.island.counts.clear();
+				reach.island.area.setPosition(reach.minX, reach.minY);
+				reach.island.area.setWidth(reach.maxX - reach.minX);
+				reach.island.area.setHeight(reach.maxY - reach.minY);
+			}//end if
+			else {
+				reach.island = root.island;
+				Rectangle area = reach.island.area;
+				double minX = Math.min(area.getX(), reach.minX);
+				double minY = Math.min(area.getY(), reach.minY);
+				area.setWidth(Math.max(area.getX() + area.getWidth(), reach.maxX) - minX);
+				area.setHeight(Math.max(area.getY() + area.getHeight(), reach.maxY) - minY);
+				area.setPosition(minX, minY);
+			}//end else
+
+			reach.island.members.add(reach);
+			islandOf.put(reach.sprite, reach.island);
+			largestIsland = Math.max(largestIsland, reach.island.members.size());
+		}//end for
+
+		if(bodiesBefore.length <= islandCount) bodiesBefore = new int[islandCount * 2];
+		bodiesBefore[0] = 0;
+		for(int i = 0; i < islandCount; i++)
+			bodiesBefore[i + 1] = bodiesBefore[i] + islands.get(i).members.size();
+	}//end group
+
+	//POST: The island's broadphase holds its own sprites and every still sprite around it, in the same order as broadphase.
+	private void fill(Island island, Broadphase broadphase) {
+		broadphase.query(island.area, found);
+		int order = 0;
+		for(int i = 0; i < found.size(); i++) {
+			Sprite sprite = found.get(i);
+			//Sprites of other islands are left out, none of this island's sprites can reach them
+			Island owner = islandOf.get(sprite);
+			if(owner != null ? owner != island : sprite instanceof PhysicsSprite) continue;
+			//Brings a shared sprite's hitbox up to date now, so while the islands are stepped it is only ever read
+			if(owner == null) sprite.getBoundary();
+			island.broadphase.insert(sprite, order++);
+		}//end for
+
+		for(int i = 0; i < island.members.size(); i++) {
+			Sprite member = island.members.get(i).sprite;
+			if(member instanceof PhysicsSprite) ((PhysicsSprite)member).setBroadphase(island.broadphase);
+		}//end for
+	}//end fill
+
+	//Updates every simulated sprite of an island in order, timing how long it took
+	private void stepIsland(World world, Island island) {
+		long start = System.nanoTime();
+		for(int i = 0; i < island.members.size(); i++) {
+			Reach member = island.members.get(i);
+			if(member.simulated && world.simulate(member.sprite, island.counts)) island.broadphase.update(member.sprite);
+		}//end for
+		island.nanos = System.nanoTime() - start;
+	}//end stepIsland
+
+	//Sets up the tasks that step a range of islands, reusing the ones from earlier ticks
+	//POST: Returns a task ready to be invoked, with its halves (and theirs) planned too.
+	private StepIslands plan(World world, int from, int to) {
+		if(taskCount == tasks.size()) tasks.add(new StepIslands());
+		StepIslands task = tasks.get(taskCount++);
+		task.reinitialize();
+		task.world = world;
+		task.from = from;
+		task.to = to;
+
+		//A range with too few bodies to be worth splitting is stepped by one task
+		if(to - from == 1 || bodiesBefore[to] - bodiesBefore[from] < GRAIN) {
+			task.left = task.right = null;
+			return task;
+		}//end if
+
+		int middle = (from + to) >>> 1;
+		task.left = this.plan(world, from, middle);
+		task.right = this.plan(world, middle, to);
+		return task;
+	}//end plan
+
+	//Steps a range of islands, or its two halves side by side if plan() split it
+	private class StepIslands extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private World world;
+		private int from, to;
+		private StepIslands left, right; //Both null if the range is stepped on its own
+
+		@Override
+		protected void compute() {
+			if(left == null) {
+				for(int i = from; i < to; i++)
+					IslandStepper.this.stepIsland(world, islands.get(i));
+				return;
+			}//end if
+
+			invokeAll(left, right);
+		}//end compute
+	}//end StepIslands
+
+	//Returns the reach leading everything joined with a reach, shortening the path there as it goes
+	private Reach find(Reach reach) {
+		while(reach.parent != reach) {
+			reach.parent = reach.parent.parent;
+			reach = reach.parent;
+		}//end while
+		return reach;
+	}//end find
+
+	//Joins what 2 reaches are joined with, led by whichever is earlier in order
+	private void union(Reach a, Reach b) {
+		Reach rootA = this.find(a);
+		Reach rootB = this.find(b);
+		if(rootA == rootB) return;
+		if(rootA.index < rootB.index) rootB.parent = rootA;
+		else rootA.parent = rootB;
+	}//end union
+
+	//Returns how many islands the bodies were split into last tick
+	public int getIslandCount() {
+		return islandCount;
+	}
+
+	//Returns how many bodies were in the largest island last tick
+	public int getLargestIsland() {
+		return largestIsland;
+	}
+
+	//Returns the time every island took last tick added up over the time they took side by side, 1 if they weren't stepped in parallel
+	public double getSpeedup() {
+		return speedup;
+	}
+
+}//end IslandStepper
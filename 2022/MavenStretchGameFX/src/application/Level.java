@@ -1,10 +1,9 @@
 package application;
 
-import java.net.URISyntaxException;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Locale;
 
 import javafx.animation.AnimationTimer;
 import javafx.event.EventHandler;
@@ -22,7 +21,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.media.AudioClip;
-import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Rectangle;
@@ -39,19 +37,19 @@ import javafx.util.Duration;
 //to match the specific level the player should be on
 //This class contains mostly helper methods to construct the level, which have been separated as such
 //to make the process of creating a level as modular as possible.
-public class Level implements LevelSubject{
+public class Level implements LevelSubject, WorldObserver{
 	
 	//A list used to track all of this objects observers
 	private ArrayList<LevelObserver> observers = new ArrayList<LevelObserver>();
 	
-	//5 Different array lists are used to track 5 unique cases of sprite interactions:
-	private ArrayList<Sprite> surfaces = new ArrayList<Sprite>();		//Sprites that can directly interact and collide (e.g walls, crates, enemies).
-	private ArrayList<Sprite> nonsurfaces = new ArrayList<Sprite>();	//Sprites that have no interactions. (e.g tutorial messages, background scenery)
-	private ArrayList<Sprite> hazards = new ArrayList<Sprite>();		//Sprites which damage the player, but aren't necessarily enemies. (environmental hazards like spikes)
-	private ArrayList<Sprite> collectibles = new ArrayList<Sprite>();	//Sprites whose only interaction is to be picked up. (Items the player collects like gems)
+	//The headless simulation holding every entity, this class only handles drawing, sound, and input for it
+	private World world;
+	private LevelData levelData; //The level as it was read, every World this level plays is built from it so restarting never reads the file again
+	private int chunkRadius; //How many chunks on each side of the player are simulated, enough to cover the window
 	
-	//A list that tracks all the keys pressed on this screen, enables multiple inputs at same time
-	private ArrayList<String> inputs = new ArrayList<String>();
+	//Tracks all the keys held on this screen, enables multiple inputs at same time
+	private InputState inputs = new InputState();
+	private InputRecording recording; //Every tick's input mask so far, written out with the frame times
 	
 	private Image background; //The background image of a level, MUST be global to be used in gameLoop scope
 	
@@ -60,20 +58,39 @@ public class Level implements LevelSubject{
 	private AudioClip gemCollected; //Audio clip played on gem collection, MUST be global for volume adjustments and gameLoop socpe
 	private AudioClip levelBeaten;  //Audio clip played on level completion, MUST be global for volume adjustments and gameLoop socpe
 	
-	private PlayerObject player; //Maintains a reference to the player, used for health tracking in the health bar.
-	private Sprite finish;		 //Maintains a reference to the level goal post (point of completion), MUST be global to check for in gameLoop
-	
 	private Rectangle healthBar; //The health bar, global because it MUST be updated inside the gameLoop
-	private Timer timer;		 //The level countdown timer, MUST be global since it must be updated, paused, and resumed in several method scopes
-	private Text timerText;		 //The text displayed for the timer tracker, MUST be global to be accessed in the timer run()
+	private Text timerText;		 //The text displayed for the timer tracker, MUST be global to be updated after each tick
+	private int shownTime = -1;	 //The level time timerText shows, so it is only rebuilt when a second passes
 	
 	private AnimationTimer gameLoop; //The game loop itself, MUST be global so that it can be paused & resumed in several methods
 	
-	private int levelTime; //The remaining time in any given level, MUST be global so it can be repeatedly referred to for score.
-	private double levelScore; //The score, MUST be global so it can be updated inside gameLoop.
+	private static final double TICK_LENGTH = 1000000000.0 / GameClock.TICKS_PER_SECOND; //The length of one simulation tick in nanoseconds, the game steps 60 times a second regardless of frame rate
+	private static final int MAX_TICKS_PER_FRAME = 5; //The most ticks a single frame may run to catch up, prevents a "spiral of death" after a stall
+	private static final double CULL_MARGIN = 100; //How far outside of the window a sprite can be and still be drawn
+	private static final double CHUNK_WIDTH = 1024; //The width of the chunks a level is streamed in, only chunks near the player are simulated
+	private application.Rectangle viewport = new application.Rectangle(0, 0, 0, 0); //The area of the world visible this frame, sprites outside it are skipped
+	private application.Rectangle screenArea = new application.Rectangle(0, 0, 0, 0); //The exact area of the world the canvas shows this frame, without the margin
+	private int spritesDrawn; //How many sprites were drawn in the last frame
+	private int spritesSkipped; //How many sprites were skipped for being off screen in the last frame
+	
+	private FrameTimer frameTimer = new FrameTimer(); //Times each phase of every frame
+	private final FrameEvent frameEvents = new FrameEvent(); //Only asked whether a recording wants FrameEvents, never committed
+	private Text frameStats; //The on screen overlay of frameTimer's percentiles, toggled with F3
+	private static final int STATS_REFRESH_FRAMES = 30; //How many frames pass between overlay refreshes, so it is readable and cheap
+	static final String FRAME_TIMES_FOLDER = "frame-times"; //Where each level's frame times are written when it is exited, and startup times
+	private static final String REPLAYS_FOLDER = "replays"; //Where each level's input recording is written when it is exited
+	private int levelNum; //The number of this level, used to name its frame times file
 	
+	private long lastFrameTime = -1; //The nanotime of the last frame, -1 when the loop has just been started or resumed
+	private double tickAccumulator; //Nanoseconds that have passed but haven't been simulated yet
+	
+	private Canvas canvas; //The canvas the level is drawn on, the size of the window unless fullCanvas is set
+	private boolean fullCanvas = false; //Whether the level is drawn the original way, toggled with 'F4' so the two renderers can be compared with F3
+	private static final double FULL_CANVAS_SIZE = 3000; //The size of the fixed canvas the original renderer draws on
 	private StackPane layout = new StackPane(); //Contains all the assets for the level, global so helper methods can work with it for convenience.
 	private Scene levelScene;
+	private int screenWidth, screenHeight; //The window size the level was built for
+	private ScrollCam cam; //Keeps the player centered on the canvas
 	
 	/**Constructs a new Level
 	 * @param screenWidth The width of the Level.
@@ -81,86 +98,67 @@ public class Level implements LevelSubject{
 	 * @param levelNum The Level that is being made.
 	 * @param levelVolume The volume of all sound effects on the Level.
 	 * */
-	//Constructor creates level 1-2, with matching screen dimensions and volume.
+	//Constructor creates the level from its level file, with matching screen dimensions and volume.
 	public Level(int screenWidth, int screenHeight, int levelNum, double levelVolume) {
+		this(screenWidth, screenHeight, LevelResources.load(levelNum), levelVolume);
+	}//end Constructor
+	
+	/**Constructs a new Level from resources that have already been loaded
+	 * @param screenWidth The width of the Level.
+	 * @param screenHeight The height of the Level.
+	 * @param resources The level file, pictures, and sounds of the Level being made, e.g loaded in the background.
+	 * @param levelVolume The volume of all sound effects on the Level.
+	 * */
+	//PRE: Called from the JavaFX application thread.
+	//POST: The level's scene is built around its resources and its game loop and music are started.
+	public Level(int screenWidth, int screenHeight, LevelResources resources, double levelVolume) {
 		
-		background = new Image("Pictures/BigWallBackground.jpg");
-		
-		//Switch changes what level entities are created and the levelTime (aspects unique to each level)
-		switch(levelNum){
-			case 1: this.createLevel1Entities();
-					this.levelTime = 300;
-					break;
-					
-			case 2: this.createLevel2Entities();
-					this.levelTime = 360;
-					break;
-			
-			//throws an exception if a number is entered that no case exists for
-			default: throw new IllegalArgumentException("The level " + levelNum + " doesn't exist!");
-		}//end switch
+		//The level's entities and levelTime (aspects unique to each level) were read from its level file along with its pictures and sounds
+		this.levelNum = resources.getLevelNum();
+		levelData = resources.getLevelData();
+		background = ImageCache.get(AssetManifest.LEVEL_BACKGROUND);
 		
-		//Resets level score to 0
-		levelScore = 0;
+		//Only the chunks around the player are simulated, enough of them to always cover the window and the area just past it
+		this.screenWidth = screenWidth;
+		this.screenHeight = screenHeight;
+		chunkRadius = (int)Math.ceil((screenWidth/2 + CULL_MARGIN) / CHUNK_WIDTH) + 1;
+		this.buildWorld();
 		
 		//creates rest of level aspects which exist in every level
-		this.generateLevelAssets();
+		this.generateLevelAssets(screenWidth, screenHeight);
 		
 		//The levelScene is created with the elements that are added into layout from generateLevelAssets()
 		levelScene = new Scene(layout, screenWidth, screenHeight);
 		
-		//The backgroundMusic is loaded into a media object here, stack traced if not found
-		Media gameTrack = null;
-		try {
-			gameTrack = new Media(getClass().getResource("/Music/scifi.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		} 
-		
-		backgroundMusicPlayer = new MediaPlayer(gameTrack);
-		
-		try {
-			gemCollected = new AudioClip(getClass().getResource("/Music/snd_fragment_retrievewav-14728.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}
+		//The canvas follows the window size (e.g a resolution change in settings), so nothing outside the window is ever drawn
+		levelScene.widthProperty().addListener((observable, oldWidth, newWidth) -> {
+			if(!fullCanvas) canvas.setWidth(newWidth.doubleValue());
+		});
+		levelScene.heightProperty().addListener((observable, oldHeight, newHeight) -> {
+			if(!fullCanvas) canvas.setHeight(newHeight.doubleValue());
+		});
 		
-		try {
-			levelBeaten = new AudioClip(getClass().getResource("/Music/teleport-14639.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}
+		//The backgroundMusic and sound effects come already loaded
+		backgroundMusicPlayer = new MediaPlayer(resources.getMusic());
+		gemCollected = resources.getGemCollected();
+		levelBeaten = resources.getLevelBeaten();
 		
 		this.updateVolume(levelVolume); //The volume is adjusted to what it was set to in settings
 		
 		//Adds listeners to the levelScene for user input
-		levelScene.setOnKeyPressed( (KeyEvent event) -> {
-			String KeyName = event.getCode().toString();
-			if( !inputs.contains(KeyName) )
-				inputs.add(KeyName);
-		});
+		levelScene.setOnKeyPressed( (KeyEvent event) -> inputs.press(event.getCode()));
 		
-		//Adds listeners for the key release, especially relevant to 'Q' and 'E'
+		//Adds listeners for the key release, releasing 'E' or 'Q' toggles the player size on the next tick
 		levelScene.setOnKeyReleased( (KeyEvent event) -> {
-			String KeyName = event.getCode().toString();
+			//Shows or hides the frame time overlay with 'F3' key
+			if(event.getCode() == KeyCode.F3)
+				frameStats.setVisible(!frameStats.isVisible());
 			
-			//Toggles the player size with 'E' key.
-			if(event.getCode() == KeyCode.E) {
-				if(player.getMass() != 2)
-					player.grow(surfaces);
-				else
-					player.returnToBaseSize(surfaces);
-			}
+			//Switches between the windowed and the original full canvas renderer with 'F4' key
+			if(event.getCode() == KeyCode.F4)
+				this.setFullCanvas(!fullCanvas);
 			
-			//Toggles the player size with 'Q' key.
-			if(event.getCode() == KeyCode.Q) {
-				if(player.getMass() != 0.5)
-					player.shrink();
-				else
-					player.returnToBaseSize(surfaces);
-			}
-			
-			inputs.remove(KeyName);
+			inputs.release(event.getCode());
 		});
 		
 		//background music is set to loop infinitely
@@ -178,13 +176,61 @@ public class Level implements LevelSubject{
 		
 	}//end Constructor
 	
+	//PRE: levelData has been read and chunkRadius set.
+	//POST: world is a new, started World holding every entity of the level as it was read, with a new input recording to go with it.
+	private void buildWorld() {
+		world = new World();
+		LevelLoader.build(levelData, world, true);
+		world.setStreaming(CHUNK_WIDTH, chunkRadius);
+		recording = new InputRecording(levelNum, CHUNK_WIDTH, chunkRadius);
+		
+		//Readies the simulation now that all of its entities have been created
+		world.setTimer(frameTimer);
+		world.start();
+		world.subscribeObserver(this);
+	}//end buildWorld
+	
+	/** reset starts the level over from the beginning, reusing its scene, canvas, sounds, and pictures instead of building a new Level
+	 * @param levelVolume The volume of all sound effects on the Level.
+	 * */
+	//PRE: The level has already been generated.
+	//POST: Every entity is back where the level file put it, the timer, health bar, and music are started over, and the game loop is running.
+	public void reset(double levelVolume) {
+		gameLoop.stop();
+		this.buildWorld();
+		
+		//The camera is put back on the new player from an untranslated canvas, the same as when the level was built
+		canvas.getGraphicsContext2D().setTransform(1, 0, 0, 1, 0, 0);
+		cam = new ScrollCam(world.getPlayer(), canvas);
+		
+		healthBar.setWidth(world.getPlayer().getHealth());
+		this.showTime();
+		frameTimer.reset();
+		
+		backgroundMusicPlayer.seek(Duration.ZERO);
+		this.updateVolume(levelVolume);
+		this.startGame();
+	}//end reset
+	
+	/** Switches between drawing on a window sized canvas and the original renderer, which erases and redraws the background over a fixed 3000x3000 canvas every frame
+	 * @param fullCanvas Whether the original renderer is used
+	 * */
+	//PRE: The level has already been generated.
+	//POST: The canvas is resized for the renderer, the camera stays on the player, and the frame times start over so they only measure this renderer.
+	public void setFullCanvas(boolean fullCanvas) {
+		this.fullCanvas = fullCanvas;
+		canvas.setWidth(fullCanvas ? FULL_CANVAS_SIZE : levelScene.getWidth());
+		canvas.setHeight(fullCanvas ? FULL_CANVAS_SIZE : levelScene.getHeight());
+		frameTimer.reset();
+	}//end setFullCanvas
+	
 	//This is a helper method used to easily generate all assets in the necessary sequence.
 	//PRE: None
-	//POST: All level assets are generated in correct sequence
-	private void generateLevelAssets() {
+	//POST: All level assets are generated in correct sequence, with a canvas the size of the window
+	private void generateLevelAssets(int screenWidth, int screenHeight) {
 		//Creates canvas and context for the game "play area"
 		VBox gameArea = new VBox();
-		Canvas canvas = new Canvas(3000,3000);
+		canvas = new Canvas(screenWidth, screenHeight);
 		gameArea.getChildren().add(canvas);										
 		gameArea.setAlignment(Pos.TOP_CENTER);
 		GraphicsContext context = canvas.getGraphicsContext2D();
@@ -195,11 +241,12 @@ public class Level implements LevelSubject{
 		this.createLevelTimer();
 		this.createHealthBar();
 		this.createUI();
+		this.createFrameStats();
 	}
 	
 	
 	//PRE: none
-	//POST: A levelTimer is created that counts down from levelTime; displayed at the top right.
+	//POST: A levelTimer showing levelTime is displayed at the top right, the World counts it down as it is stepped.
 	private void createLevelTimer() {
 		timerText = new Text();
 		timerText.setFont(Font.font("Arial", FontWeight.BOLD, 40));
@@ -207,22 +254,18 @@ public class Level implements LevelSubject{
 		TextFlow displayedTime = new TextFlow();
 		displayedTime.setTextAlignment(TextAlignment.RIGHT);
 		displayedTime.getChildren().add(timerText);
-		
-		//A timer is created that counts down from levelTime
-		this.timer = new Timer();
-		timer.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				levelTime--;
-				timerText.setText("Time Remaining:\t" + Double.toString(levelTime));
-				if (levelTime == 0)
-					timer.cancel();
-			}
-		}, 0,1000);
+		this.showTime();
 		
 		layout.getChildren().add(displayedTime);
 	}//End createLevelTimer
 	
+	//POST: timerText shows the World's levelTime, it is only rebuilt if the time has changed since it was last shown.
+	private void showTime() {
+		if(shownTime == world.getLevelTime()) return;
+		shownTime = world.getLevelTime();
+		timerText.setText("Time Remaining:\t" + Double.toString(shownTime));
+	}//end showTime
+	
 	
 	//PRE: A valid-player object already exists
 	//POST: A healthBar based on the player is created
@@ -231,7 +274,7 @@ public class Level implements LevelSubject{
 		HBox health = new HBox();
 		health.setAlignment(Pos.TOP_LEFT);
 		health.setPadding(new Insets(10, 10, 0, 5));
-		Rectangle healthBar = new Rectangle(10, 100, player.getHealth(), 25);
+		Rectangle healthBar = new Rectangle(10, 100, world.getPlayer().getHealth(), 25);
 		healthBar.setFill(Color.GREEN);
 		health.getChildren().add(healthBar);
 		
@@ -253,13 +296,12 @@ public class Level implements LevelSubject{
 	private void createUI() {
 		Button returnMe = new Button(); //Simple button to return to the main menu, progress not saved
 		
-		Image returnGraphic = new Image("Pictures/goback.png");
+		Image returnGraphic = ImageCache.get("Pictures/goback.png");
 		ImageView viewReturnGraphic = new ImageView(returnGraphic);
 		returnMe.setGraphic(viewReturnGraphic);
 		
-		//Button pauses loop, cancels timers, and notifies GameFrame what to do
+		//Button pauses loop, which also stops the level clock, and notifies GameFrame what to do
 		returnMe.setOnAction(e -> {
-			this.timer.cancel();
 			gameLoop.stop();
 			this.notifyObservers(0);
 		});
@@ -279,117 +321,79 @@ public class Level implements LevelSubject{
 		layout.getChildren().add(align);
 	}//End createUI
 	
+	//PRE: none
+	//POST: A hidden overlay for frame time percentiles is created below the health bar.
+	private void createFrameStats() {
+		frameStats = new Text();
+		frameStats.setFont(Font.font("Monospaced", 14));
+		frameStats.setFill(Color.WHITE);
+		frameStats.setStroke(Color.BLACK);
+		frameStats.setStrokeWidth(0.5);
+		frameStats.setVisible(false);
+		
+		VBox align = new VBox();
+		align.setAlignment(Pos.TOP_LEFT);
+		align.setPadding(new Insets(50, 10, 0, 10));
+		align.setMouseTransparent(true);
+		align.getChildren().add(frameStats);
+		
+		layout.getChildren().add(align);
+	}//end createFrameStats
+	
 	//PRE: The correct (non-null) context and canvas the sprites should be drawn to must be passed here.
-	//POST: A game loop is created that can render and update all sprites alongside checking for death or victory
+	//POST: A game loop is created that steps the simulation at a fixed rate and renders between those steps.
 	private void createLoop(GraphicsContext context, Canvas canvas) {
 		
 		//Scrollcam is set to player and relevant canvas to track
-		ScrollCam cam = new ScrollCam(player, canvas);
+		cam = new ScrollCam(world.getPlayer(), canvas);
+		
+		//Keeps the player centered when the canvas is resized with the window
+		canvas.widthProperty().addListener((observable, oldWidth, newWidth) -> cam.resize(context, newWidth.doubleValue() - oldWidth.doubleValue(), 0));
+		canvas.heightProperty().addListener((observable, oldHeight, newHeight) -> cam.resize(context, 0, newHeight.doubleValue() - oldHeight.doubleValue()));
 		
 		//Timer for our game that calls interactions and renders sprites.
 		gameLoop = new AnimationTimer(){
 		
 			public void handle(long nanotime) {
 				
-				//"Erases" all previous frames by redrawing area around player as white in a colossal radius that extends beyond all resolutions.
-				context.setFill(Color.WHITE);
-				context.fillRect(player.getPosition().getX()-1500, player.getPosition().getY()-1500, 3000, 3000);
-				
-				//Redraws the stone castle background around the player to give the "illusion" of being inside.
-				context.drawImage(background, player.getPosition().getX() + player.getBoundaryWidth()/2 - background.getWidth()/2, player.getPosition().getY() + player.getBoundaryHeight() - background.getHeight()/2);
-				
-				//updates the HealthBar to match player Health, if there is one on this level
-				if(healthBar != null) healthBar.setWidth(player.getHealth());
-				
-				//Iterator and pointer used to move through surfaces list
-				Iterator<Sprite> it = surfaces.iterator();
-				Sprite pointer;
-				
-				
-				//Renders and updates every object in level in order of declaration
-				while(it.hasNext()) {
-					pointer = it.next();
-					if(pointer instanceof PlayerObject)
-						((PlayerObject)pointer).playerUpdate(surfaces, hazards);
-					else if (pointer instanceof PhysicsSprite)
-						((PhysicsSprite)pointer).update(surfaces);
-					else
-						pointer.update();
-					pointer.render(context);
-				}//end while
-				
-				//Loop runs through nonsurfaces and renders, no updates required since sprites are uninteractable.
-				for(Sprite renderPointer : nonsurfaces) {
-					renderPointer.render(context);
-				}
-				
-				//Runs through surfaces to remove all enemies who's health has been depleted
-				for(int i = 0; i < surfaces.size(); i++) {
-					pointer = surfaces.get(i);
-					if(pointer instanceof Enemy && ((Enemy)pointer).getHealth() <= 0) {
-						surfaces.remove(pointer);
-						Level.this.levelScore += 320;
-					}
-				}
-				
-				//For loop runs through collectibles and removes them if touched by player, also updates score
-				for(int i = 0; i < collectibles.size(); i++) {
-					pointer = collectibles.get(i);
-					if(pointer.overlaps(player)) {
-						Level.this.levelScore += 80;
-						
-						if(player.getHealth() < 200)
-							if(player.getHealth() + 40 >= 200) player.setHealth(200);
-							else player.setHealth(player.getHealth() + 40);
-						
-						Level.this.gemCollected.play();
-						collectibles.remove(pointer);
-					}
-				}
-				//Runs through the collectibles to render all of them
-				for(Sprite collect : collectibles) {
-					collect.render(context);
-				}
-				//Collectibles needs to be done in these 2 loops to avoid a concurrency error with collectibles changing size
-				
+				frameTimer.beginFrame();
+				//An event is only made while a recording wants one, so a frame allocates nothing for it otherwise
+				FrameEvent event = frameEvents.isEnabled() ? new FrameEvent() : null;
+				if(event != null) event.begin();
 				
-				//Series of if statements checking for player inputs
-				if (inputs.contains("A"))
-					player.setVelocityX(-5);
-				if (inputs.contains("D"))
-					player.setVelocityX(5);
-				if(inputs.contains("A") && inputs.contains("D"))
-					player.setVelocityX(0);	
-				if(!(inputs.contains("A") || inputs.contains("D")))
-					player.setVelocityX(0);;
-				//Jump action requires slime to also be on surface
-				if (inputs.contains("W") && player.isOnSurface() && !player.isBouncing()) {
-					player.getVelocity().add(0,-20);
-					player.playJumpSound();
+				//The first frame after starting or resuming runs exactly one tick, so time spent paused is never simulated
+				if(lastFrameTime < 0) {
+					lastFrameTime = nanotime;
+					tickAccumulator = TICK_LENGTH;
 				}
 				
+				tickAccumulator += nanotime - lastFrameTime;
+				lastFrameTime = nanotime;
 				
-				//updates camera to center itself on the slime
-				cam.readjust(context);
-				cam.update(context);
-				
+				//Runs as many fixed ticks as the elapsed time calls for, capped so a long stall can't snowball
+				int ticks = 0;
+				while(tickAccumulator >= TICK_LENGTH && ticks < MAX_TICKS_PER_FRAME) {
+					tickAccumulator -= TICK_LENGTH;
+					ticks++;
+					
+					if(!Level.this.tick()) {
+						this.stop(); //Stops the gameLoop upon the level ending
+						Level.this.commitFrame(event, ticks);
+						return;
+					}//end if
+				}//end while
 				
-				//notifies if player is dead, which should transition to the death scene
-				if(player.getHealth() <= 0) {
-					Level.this.timer.cancel();
-					Level.this.notifyObservers(1);
-					this.stop(); //Stops the gameLoop upon player losing.
-				}//end if
+				//Any time left over past the cap is dropped rather than carried into the next frame
+				if(tickAccumulator >= TICK_LENGTH) tickAccumulator %= TICK_LENGTH;
 				
-				//notifies if player has beat the level by reaching the goal-post object and should transition to the death scene
-				else if(finish != null && player.overlaps(finish)){
-					Level.this.levelScore += player.getHealth()*3 + Level.this.levelTime*2;
-					Level.this.timer.cancel();
-					Level.this.levelBeaten.play();
-					Level.this.notifyObservers(2); 
-					this.stop(); //Stops the gameLoop upon level completion
-				}//end if
+				//Sprites are drawn part way between their last 2 ticks based on how far into the next tick this frame is
+				Level.this.render(context, Level.this.cam, tickAccumulator / TICK_LENGTH);
 				
+				frameTimer.endFrame();
+				Level.this.commitFrame(event, ticks);
+				if(frameStats.isVisible() && frameTimer.getFrames() % STATS_REFRESH_FRAMES == 0)
+					frameStats.setText(frameTimer.summary() + String.format(Locale.ROOT, "bodies %d, %d asleep (%d sleeps, %d wakes)%n%s renderer (F4)",
+							world.getBodies(), world.getAsleep(), world.getSleeps(), world.getWakes(), fullCanvas ? "full canvas" : "windowed"));
 				
 			}//end handle()
 			
@@ -397,444 +401,162 @@ public class Level implements LevelSubject{
 		
 	}//End createLoop
 	
-	//PRE: none.
-	//POST: All entities for level 1 are created and "loaded" onto their corresponding lists.
-	private void createLevel1Entities() {
-		
-		//First tutorial image for horizontal movement with 'A' and 'D' keys
-		Sprite movTutorial1 = new Sprite();
-		movTutorial1.setImage("Pictures/HorizontalTutorial.png");
-		movTutorial1.getPosition().set(20, -movTutorial1.getBoundaryHeight() - 190);
-		nonsurfaces.add(movTutorial1);
-		
-		//Second tutorial image for jump with 'W' key
-		Sprite movTutorial2 = new Sprite();
-		movTutorial2.setImage("Pictures/VerticalTutorial.png");
-		movTutorial2.getPosition().set(1400 - movTutorial2.getBoundaryWidth()/2, -movTutorial2.getBoundaryHeight() -190);
-		nonsurfaces.add(movTutorial2);
-		
-		Sprite floor1 = new Sprite();
-		floor1.setImage("Pictures/Floor.png");
-		floor1.getPosition().set(0, 0);
-		floor1.setSolid(true);
-		surfaces.add(floor1);
-		
-		Sprite floor2 = new Sprite();
-		floor2.setImage("Pictures/Floor.png");
-		floor2.getPosition().set(floor1.getBoundaryWidth(), 0);
-		floor2.setSolid(true);
-		surfaces.add(floor2);
-		
-		Sprite floor3 = new Sprite();
-		floor3.setImage("Pictures/Floor.png");
-		floor3.getPosition().set(floor2.getBoundaryX() + floor2.getBoundaryWidth() + 700, 0);
-		floor3.setSolid(true);
-		surfaces.add(floor3);
-		
-		Sprite floor0 = new Sprite();
-		floor0.setImage("Pictures/Floor.png");
-		floor0.getPosition().set(-floor0.getBoundaryWidth(), 0);
-		floor0.setSolid(true);
-		surfaces.add(floor0);
-		
-		Sprite floor01 = new Sprite();
-		floor01.setImage("Pictures/Floor.png");
-		floor01.getPosition().set(floor2.getBoundaryX() + floor2.getBoundaryWidth()/2, 400);
-		floor01.setSolid(true);
-		surfaces.add(floor01);
-		
-		Sprite spike1 = new Sprite();
-		spike1.setImage("Pictures/Spikes.png");
-		spike1.getPosition().set(1400, 0 - spike1.getBoundaryHeight());
-		spike1.setSolid(true);
-		surfaces.add(spike1);
-		hazards.add(spike1);
-		
-		Sprite leftBoundaryWall = new Sprite();
-		leftBoundaryWall.setImage("Pictures/Brick.png");
-		leftBoundaryWall.getPosition().set(-leftBoundaryWall.getBoundaryWidth(), -leftBoundaryWall.getBoundaryHeight());
-		leftBoundaryWall.setSolid(true);
-		surfaces.add(leftBoundaryWall);
-		
-		//Tutorial for shrinking with 'Q' key
-		Sprite shrinkTutorial = new Sprite();
-		shrinkTutorial.setImage("Pictures/ShrinkTutorial.png");
-		shrinkTutorial.getPosition().set(2500 - shrinkTutorial.getBoundaryWidth() -10, -shrinkTutorial.getBoundaryHeight() - 190);
-		nonsurfaces.add(shrinkTutorial);
-		
-		Sprite brickObstacle1 = new Sprite();
-		brickObstacle1.setImage("Pictures/Brick.png");
-		brickObstacle1.getPosition().set(2500, -brickObstacle1.getBoundaryHeight() -100);
-		brickObstacle1.setSolid(true);
-		surfaces.add(brickObstacle1);
-		
-		PlayerObject slime = new PlayerObject(1, .50, 200);
-		slime.setImage("Pictures/Slime.png");
-		slime.getPosition().set(20, 0 - slime.getBoundaryHeight());
-		player = slime;
-		surfaces.add(slime);
-		
-		//Tutorial for moving boxes at normal size
-		Sprite movTutorial3 = new Sprite();
-		movTutorial3.setImage("Pictures/MoveTutorial.png");
-		movTutorial3.getPosition().set(brickObstacle1.getBoundaryX() + brickObstacle1.getBoundaryWidth() + 200, -movTutorial3.getBoundaryHeight() - 190);
-		nonsurfaces.add(movTutorial3);
-		
-		PhysicsSprite crate1 = new PhysicsSprite(1, .5);
-		crate1.setImage("Pictures/Crate.png");
-		crate1.getPosition().set(brickObstacle1.getBoundaryWidth() + brickObstacle1.getBoundaryX() + 400, -crate1.getBoundaryHeight());
-		surfaces.add(crate1);
-		
-		Sprite brickObstacle2 = new Sprite();
-		brickObstacle2.setImage("Pictures/Brick.png");
-		brickObstacle2.getPosition().set(crate1.getBoundaryX() + crate1.getBoundaryWidth() + 400, -brickObstacle2.getBoundaryHeight());
-		brickObstacle2.setSolid(true);
-		surfaces.add(brickObstacle2);
-		
-		//Tutorial for how gem collections work
-		Sprite gemTutorial = new Sprite();
-		gemTutorial.setImage("Pictures/GemTutorial.png");
-		gemTutorial.getPosition().set(brickObstacle2.getBoundaryX() + brickObstacle2.getBoundaryWidth() + 500, -gemTutorial.getBoundaryHeight() - 190);
-		nonsurfaces.add(gemTutorial);
-		
-		Sprite gem = new Sprite();
-		gem.setImage("Pictures/GemStone.png");
-		gem.getPosition().set(brickObstacle2.getBoundaryX() + brickObstacle2.getBoundaryWidth() + 500 + gem.getBoundaryWidth(), -gem.getBoundaryHeight());
-		collectibles.add(gem);
-		
-		//Tutorial for growing with the 'E' key
-		Sprite hugeTutorial = new Sprite();
-		hugeTutorial.setImage("Pictures/HugeTutorial.png");
-		hugeTutorial.getPosition().set(brickObstacle2.getBoundaryX() + brickObstacle2.getBoundaryWidth() + 1300, -hugeTutorial.getBoundaryHeight() - 190);
-		nonsurfaces.add(hugeTutorial);
-		
-		PhysicsSprite bigHeavyCrate = new PhysicsSprite(2, .5);
-		bigHeavyCrate.setImage("Pictures/GiantMetalCrate.png");
-		bigHeavyCrate.getPosition().set(brickObstacle2.getBoundaryX() + brickObstacle2.getBoundaryWidth() + 2200, -bigHeavyCrate.getBoundaryHeight());
-		surfaces.add(bigHeavyCrate);
-		
-		//Tutorial for how to beat a level
-		Sprite portalTutorial = new Sprite();
-		portalTutorial.setImage("Pictures/PortalTutorial.png");
-		portalTutorial.getPosition().set(floor3.getBoundaryX(), -portalTutorial.getBoundaryHeight() - 190);
-		nonsurfaces.add(portalTutorial);
-		
-		Sprite portal = new Sprite();
-		portal.setImage("Pictures/Finish.png");
-		portal.getPosition().set(floor3.getBoundaryX() + 300 + portal.getBoundaryWidth(), -portal.getBoundaryHeight());
-		surfaces.add(portal);
-		finish = portal;
-	}//End of createLevel1Entities
+	//PRE: event was begun at the start of this frame, or is null when no recording wanted it.
+	//POST: event is recorded with this frame's counts if a flight recording is taking FrameEvents.
+	private void commitFrame(FrameEvent event, int ticks) {
+		if(event == null) return;
+		event.end();
+		if(!event.shouldCommit()) return;
+		
+		event.level = levelNum;
+		event.ticks = ticks;
+		event.simulated = world.getSimulated().size();
+		event.drawn = spritesDrawn;
+		event.commit();
+	}//end commitFrame
+	
+	//PRE: The level entities and assets have all been created.
+	//POST: The world is stepped forward by one tick, returns false if the level has ended from a death or victory.
+	private boolean tick() {
+		frameTimer.phase(FrameTimer.INPUT);
+		int status = world.step(this.latchInputs());
+		frameTimer.phase(FrameTimer.OTHER);
+		
+		//updates the HealthBar to match player Health, if there is one on this level
+		if(healthBar != null) healthBar.setWidth(world.getPlayer().getHealth());
+		this.showTime();
+		
+		//notifies if player is dead, which should transition to the death scene
+		if(status == World.PLAYER_DIED) {
+			this.notifyObservers(1);
+			return false;
+		}//end if
+		
+		//notifies if player has beat the level by reaching the goal-post object and should transition to the victory scene
+		else if(status == World.LEVEL_BEATEN){
+			levelBeaten.play();
+			this.notifyObservers(2); 
+			return false;
+		}//end if
+		
+		return true;
+	}//end tick
 	
 	//PRE: none.
-	//POST: All entities for level 2 are created and "loaded" onto their corresponding lists.
-	private void createLevel2Entities() {
-		
-		Sprite floor0 = new Sprite();
-		floor0.setImage("Pictures/Floor.png");
-		floor0.getPosition().set(-floor0.getBoundaryWidth(), 0);
-		floor0.setSolid(true);
-		surfaces.add(floor0);
-		
-		Sprite floor1 = new Sprite();
-		floor1.setImage("Pictures/Floor.png");
-		floor1.getPosition().set(0, 0);
-		floor1.setSolid(true);
-		surfaces.add(floor1);
-		
-		Sprite leftBoundaryWall = new Sprite();
-		leftBoundaryWall.setImage("Pictures/Brick.png");
-		leftBoundaryWall.getPosition().set(-leftBoundaryWall.getBoundaryWidth(), -leftBoundaryWall.getBoundaryHeight());
-		leftBoundaryWall.setSolid(true);
-		surfaces.add(leftBoundaryWall);
-		
-		Sprite enemyTutorial = new Sprite();
-		enemyTutorial.setImage("Pictures/EnemyTutorial.png");
-		enemyTutorial.getPosition().set(40, -enemyTutorial.getBoundaryHeight() - 190);
-		nonsurfaces.add(enemyTutorial);
-		
-		Sprite block1 = new Sprite();
-		block1.setImage("Pictures/Block.png");
-		block1.getPosition().set(700, -block1.getBoundaryHeight());
-		block1.setSolid(true);
-		surfaces.add(block1);
-		
-		Sprite spike1 = new Sprite();
-		spike1.setImage("Pictures/Spikes.png");
-		spike1.getPosition().set(block1.getBoundaryX() + block1.getBoundaryWidth() + 150, -spike1.getBoundaryHeight());
-		spike1.setSolid(true);
-		surfaces.add(spike1);
-		hazards.add(spike1);
-		
-		Sprite spike2 = new Sprite();
-		spike2.setImage("Pictures/Spikes.png");
-		spike2.getPosition().set(spike1.getBoundaryX() + spike1.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike2.setSolid(true);
-		surfaces.add(spike2);
-		hazards.add(spike2);
-		
-		Sprite spike3 = new Sprite();
-		spike3.setImage("Pictures/Spikes.png");
-		spike3.getPosition().set(spike2.getBoundaryX() + spike2.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike3.setSolid(true);
-		surfaces.add(spike3);
-		hazards.add(spike3);
-		
-		Sprite spike4 = new Sprite();
-		spike4.setImage("Pictures/Spikes.png");
-		spike4.getPosition().set(spike3.getBoundaryX() + spike3.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike4.setSolid(true);
-		surfaces.add(spike4);
-		hazards.add(spike4);
-		
-		Sprite spike5 = new Sprite();
-		spike5.setImage("Pictures/Spikes.png");
-		spike5.getPosition().set(spike4.getBoundaryX() + spike4.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike5.setSolid(true);
-		surfaces.add(spike5);
-		hazards.add(spike5);
-		
-		Sprite spike6 = new Sprite();
-		spike6.setImage("Pictures/Spikes.png");
-		spike6.getPosition().set(spike5.getBoundaryX() + spike5.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike6.setSolid(true);
-		surfaces.add(spike6);
-		hazards.add(spike6);
-		
-		Sprite spike7 = new Sprite();
-		spike7.setImage("Pictures/Spikes.png");
-		spike7.getPosition().set(spike6.getBoundaryX() + spike6.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike7.setSolid(true);
-		surfaces.add(spike7);
-		hazards.add(spike7);
-		
-		Sprite spike8 = new Sprite();
-		spike8.setImage("Pictures/Spikes.png");
-		spike8.getPosition().set(spike7.getBoundaryX() + spike7.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike8.setSolid(true);
-		surfaces.add(spike8);
-		hazards.add(spike8);
-		
-		Sprite spike9 = new Sprite();
-		spike9.setImage("Pictures/Spikes.png");
-		spike9.getPosition().set(spike8.getBoundaryX() + spike8.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike9.setSolid(true);
-		surfaces.add(spike9);
-		hazards.add(spike9);
-		
-		Sprite spike10 = new Sprite();
-		spike10.setImage("Pictures/Spikes.png");
-		spike10.getPosition().set(spike9.getBoundaryX() + spike9.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike10.setSolid(true);
-		surfaces.add(spike10);
-		hazards.add(spike10);
-		
-		Sprite spike11 = new Sprite();
-		spike11.setImage("Pictures/Spikes.png");
-		spike11.getPosition().set(spike10.getBoundaryX() + spike10.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike11.setSolid(true);
-		surfaces.add(spike11);
-		hazards.add(spike11);
-		
-		Sprite spike12 = new Sprite();
-		spike12.setImage("Pictures/Spikes.png");
-		spike12.getPosition().set(spike11.getBoundaryX() + spike11.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike12.setSolid(true);
-		surfaces.add(spike12);
-		hazards.add(spike12);
-		
-		Sprite spike13 = new Sprite();
-		spike13.setImage("Pictures/Spikes.png");
-		spike13.getPosition().set(spike12.getBoundaryX() + spike12.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike13.setSolid(true);
-		surfaces.add(spike13);
-		hazards.add(spike13);
-		
-		Sprite spike14 = new Sprite();
-		spike14.setImage("Pictures/Spikes.png");
-		spike14.getPosition().set(spike13.getBoundaryX() + spike13.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike14.setSolid(true);
-		surfaces.add(spike14);
-		hazards.add(spike14);
-		
-		Sprite spike15 = new Sprite();
-		spike15.setImage("Pictures/Spikes.png");
-		spike15.getPosition().set(spike14.getBoundaryX() + spike14.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike15.setSolid(true);
-		surfaces.add(spike15);
-		hazards.add(spike15);
-		
-		Sprite spike16 = new Sprite();
-		spike16.setImage("Pictures/Spikes.png");
-		spike16.getPosition().set(spike15.getBoundaryX() + spike15.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike16.setSolid(true);
-		surfaces.add(spike16);
-		hazards.add(spike16);
-		
-		Sprite spike17 = new Sprite();
-		spike17.setImage("Pictures/Spikes.png");
-		spike17.getPosition().set(spike16.getBoundaryX() + spike16.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike17.setSolid(true);
-		surfaces.add(spike17);
-		hazards.add(spike17);
-		
-		Sprite spike18 = new Sprite();
-		spike18.setImage("Pictures/Spikes.png");
-		spike18.getPosition().set(spike17.getBoundaryX() + spike17.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike18.setSolid(true);
-		surfaces.add(spike18);
-		hazards.add(spike18);
-		
-		Sprite spike19 = new Sprite();
-		spike19.setImage("Pictures/Spikes.png");
-		spike19.getPosition().set(spike18.getBoundaryX() + spike18.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike19.setSolid(true);
-		surfaces.add(spike19);
-		hazards.add(spike19);
-		
-		Sprite spike20 = new Sprite();
-		spike20.setImage("Pictures/Spikes.png");
-		spike20.getPosition().set(spike19.getBoundaryX() + spike19.getBoundaryWidth(), -spike1.getBoundaryHeight());
-		spike20.setSolid(true);
-		surfaces.add(spike20);
-		hazards.add(spike20);
-		
-		Sprite block2 = new Sprite();
-		block2.setImage("Pictures/Block.png");
-		block2.getPosition().set(block1.getBoundaryX() + block1.getBoundaryWidth() + 400, -block2.getBoundaryHeight() - 300);
-		block2.setSolid(true);
-		surfaces.add(block2);
-		
-		Sprite block3 = new Sprite();
-		block3.setImage("Pictures/Block.png");
-		block3.getPosition().set(block2.getBoundaryX() + block2.getBoundaryWidth() + 400, -block3.getBoundaryHeight() - 300);
-		block3.setSolid(true);
-		surfaces.add(block3);
-		
-		Sprite block4 = new Sprite();
-		block4.setImage("Pictures/Block.png");
-		block4.getPosition().set(block3.getBoundaryX() + block3.getBoundaryWidth() + 400, -block4.getBoundaryHeight() - 300);
-		block4.setSolid(true);
-		surfaces.add(block4);
-		
-		Sprite block5 = new Sprite();
-		block5.setImage("Pictures/Block.png");
-		block5.getPosition().set(block4.getBoundaryX() + block4.getBoundaryWidth() + 400, -block5.getBoundaryHeight() - 300);
-		block5.setSolid(true);
-		surfaces.add(block5);
-		
-		Sprite brickObstacle1 = new Sprite();
-		brickObstacle1.setImage("Pictures/Brick.png");
-		brickObstacle1.getPosition().set(spike20.getBoundaryX() + spike20.getBoundaryWidth(), -brickObstacle1.getBoundaryHeight());
-		brickObstacle1.setSolid(true);
-		surfaces.add(brickObstacle1);
-		
-		Sprite blockStep = new Sprite();
-		blockStep.setImage("Pictures/Block.png");
-		blockStep.getPosition().set(brickObstacle1.getBoundaryX() + brickObstacle1.getBoundaryWidth(), -blockStep.getBoundaryHeight());
-		blockStep.setSolid(true);
-		surfaces.add(blockStep);
-		
-		Sprite gem1 = new Sprite();
-		gem1.setImage("Pictures/GemStone.png");
-		gem1.getPosition().set(blockStep.getBoundaryX() + blockStep.getBoundaryWidth() + 150, -gem1.getBoundaryHeight());
-		collectibles.add(gem1);
-		
-		Sprite gem2 = new Sprite();
-		gem2.setImage("Pictures/GemStone.png");
-		gem2.getPosition().set(gem1.getBoundaryX() + gem1.getBoundaryWidth() + 30, -gem1.getBoundaryHeight());
-		collectibles.add(gem2);
-		
-		Sprite gem3 = new Sprite();
-		gem3.setImage("Pictures/GemStone.png");
-		gem3.getPosition().set(gem2.getBoundaryX() + gem2.getBoundaryWidth() + 30, -gem1.getBoundaryHeight());
-		collectibles.add(gem3);
-		
-		Sprite gem4 = new Sprite();
-		gem4.setImage("Pictures/GemStone.png");
-		gem4.getPosition().set(gem3.getBoundaryX() + gem3.getBoundaryWidth() + 30, -gem1.getBoundaryHeight());
-		collectibles.add(gem4);
-		
-		Sprite gem5 = new Sprite();
-		gem5.setImage("Pictures/GemStone.png");
-		gem5.getPosition().set(gem4.getBoundaryX() + gem4.getBoundaryWidth() + 30, -gem1.getBoundaryHeight());
-		collectibles.add(gem5);
-		
-		Sprite gem6 = new Sprite();
-		gem6.setImage("Pictures/GemStone.png");
-		gem6.getPosition().set(gem5.getBoundaryX() + gem5.getBoundaryWidth() + 30, -gem1.getBoundaryHeight());
-		collectibles.add(gem6);
-		
-		Sprite brickObstacle2 = new Sprite();
-		brickObstacle2.setImage("Pictures/Brick.png");
-		brickObstacle2.getPosition().set(brickObstacle1.getBoundaryX() + 200, brickObstacle1.getBoundaryY() - brickObstacle2.getBoundaryHeight() - 130);
-		brickObstacle2.setSolid(true);
-		surfaces.add(brickObstacle2);
-		
-		Sprite block6 = new Sprite();
-		block6.setImage("Pictures/Block.png");
-		block6.getPosition().set(brickObstacle1.getBoundaryX(), brickObstacle2.getBoundaryY() + brickObstacle2.getBoundaryHeight()/2 + 40);
-		block6.setSolid(true);
-		surfaces.add(block6);
-		
-		Sprite brickFloor = new Sprite();
-		brickFloor.setImage("Pictures/Brick.png");
-		brickFloor.getPosition().set(floor1.getBoundaryX() + floor1.getBoundaryWidth(), 0);
-		brickFloor.setSolid(true);
-		surfaces.add(brickFloor);
-		
-		Sprite floor2 = new Sprite();
-		floor2.setImage("Pictures/Floor.png");
-		floor2.getPosition().set(brickObstacle2.getBoundaryX() + brickObstacle2.getBoundaryWidth(), brickObstacle1.getBoundaryY() - floor2.getBoundaryHeight() - 130);
-		floor2.setSolid(true);
-		surfaces.add(floor2);
-		
-		Enemy evilEye1 = new Enemy(1, .50, 200, "Pictures/EyeRight.png", "Pictures/Eye.png");
-		evilEye1.setImage("Pictures/Eye.png");
-		evilEye1.getPosition().set(floor2.getBoundaryX() + 300, floor2.getBoundaryY() - evilEye1.getBoundaryHeight());
-		surfaces.add(evilEye1);
-		
-		PhysicsSprite crate1 = new PhysicsSprite(1, .50);
-		crate1.setImage("Pictures/Crate.png");
-		crate1.getPosition().set(evilEye1.getBoundaryX() + evilEye1.getBoundaryWidth() + 900, floor2.getBoundaryY() - crate1.getBoundaryHeight());
-		surfaces.add(crate1);
-		
-		Sprite gem7 = new Sprite();
-		gem7.setImage("Pictures/GemStone.png");
-		gem7.getPosition().set(crate1.getBoundaryX() + crate1.getBoundaryWidth()/2 - gem7.getBoundaryWidth()/2, crate1.getBoundaryY() - gem7.getBoundaryHeight());
-		collectibles.add(gem7);
-		
-		PhysicsSprite heavyCrate = new PhysicsSprite(2, .50);
-		heavyCrate.setImage("Pictures/GiantMetalCrate.png");
-		heavyCrate.getPosition().set(crate1.getBoundaryX() + crate1.getBoundaryWidth() + 300, floor2.getBoundaryY() - heavyCrate.getBoundaryHeight());
-		surfaces.add(heavyCrate);
-		
-		Enemy evilEye2 = new Enemy(1, .50, 200, "Pictures/EyeRight.png", "Pictures/Eye.png");
-		evilEye2.setImage("Pictures/Eye.png");
-		evilEye2.getPosition().set(heavyCrate.getBoundaryX() + heavyCrate.getBoundaryWidth()/2 - evilEye2.getBoundaryWidth()/2, heavyCrate.getBoundaryY() - evilEye2.getBoundaryHeight());
-		surfaces.add(evilEye2);
-		
-		Sprite floor3 = new Sprite();
-		floor3.setImage("Pictures/Floor.png");
-		floor3.getPosition().set(heavyCrate.getBoundaryX() + heavyCrate.getBoundaryWidth() + 1000, floor2.getBoundaryY() - floor3.getBoundaryHeight());
-		floor3.setSolid(true);
-		surfaces.add(floor3);
-		
-		Sprite portal = new Sprite();
-		portal.setImage("Pictures/Finish.png");
-		portal.getPosition().set(floor3.getBoundaryX() + 500, floor3.getBoundaryY() - portal.getBoundaryHeight());
-		surfaces.add(portal);
-		finish = portal;
-		
-		PlayerObject slime = new PlayerObject(1, .50, 200);
-		slime.setImage("Pictures/Slime.png");
-		slime.getPosition().set(0, floor1.getBoundaryY() - slime.getBoundaryHeight());
-		player = slime;
-		surfaces.add(slime);
-
+	//POST: Returns the World input bitmask for the keys held right now plus any size toggles since the last tick, and records it.
+	private int latchInputs() {
+		int mask = inputs.latch();
+		recording.record(mask);
+		return mask;
+	}//end latchInputs
+	
+	/**Plays the sound matching an event from the World.
+	 * @param event The World event constant that happened.
+	 * */
+	@Override
+	public void worldEvent(int event) {
+		switch(event) {
+			case World.GEM_COLLECTED: gemCollected.play();
+									  break;
+			case World.PLAYER_JUMPED: world.getPlayer().playJumpSound();
+									  break;
+		}//end switch
+	}//end worldEvent
+	
+	//PRE: context and cam belong to the level canvas, alpha is between 0 and 1.
+	//POST: Every sprite is drawn at alpha of the way between its previous and current tick, then the camera is recentered.
+	private void render(GraphicsContext context, ScrollCam cam, double alpha) {
+		frameTimer.phase(FrameTimer.RENDER);
+		
+		PlayerObject player = world.getPlayer();
+		double playerX = player.getInterpolatedX(alpha);
+		double playerY = player.getInterpolatedY(alpha);
+		
+		//The windowed canvas is all visible, the full canvas is larger than the window and centered in it so only its middle is
+		double canvasWidth = context.getCanvas().getWidth();
+		double canvasHeight = context.getCanvas().getHeight();
+		double visibleWidth = fullCanvas ? levelScene.getWidth() : canvasWidth;
+		double visibleHeight = fullCanvas ? levelScene.getHeight() : canvasHeight;
+		cam.getViewport((canvasWidth - visibleWidth)/2, (canvasHeight - visibleHeight)/2, visibleWidth, visibleHeight, CULL_MARGIN, viewport);
+		cam.getViewport((canvasWidth - visibleWidth)/2, (canvasHeight - visibleHeight)/2, visibleWidth, visibleHeight, 0, screenArea);
+		spritesDrawn = 0;
+		spritesSkipped = 0;
+		
+		double backgroundX = playerX + player.getBoundaryWidth()/2 - background.getWidth()/2;
+		double backgroundY = playerY + player.getBoundaryHeight() - background.getHeight()/2;
+		if(fullCanvas) {
+			//"Erases" all previous frames by redrawing area around player as white in a colossal radius that extends beyond all resolutions.
+			context.setFill(Color.WHITE);
+			context.fillRect(playerX-1500, playerY-1500, FULL_CANVAS_SIZE, FULL_CANVAS_SIZE);
+			
+			//Redraws the stone castle background around the player to give the "illusion" of being inside.
+			context.drawImage(background, backgroundX, backgroundY);
+		}//end if
 		
+		//Redraws the stone castle background around the player to give the "illusion" of being inside, which also erases the last frame
+		else this.drawBackground(context, backgroundX, backgroundY);
 		
-	}//End of createLevel2Entities
+		for(Sprite surface : world.getSurfaces()) {
+			this.renderIfVisible(surface, context, alpha);
+		}
+		
+		//Loop runs through nonsurfaces and renders, no updates required since sprites are uninteractable.
+		for(Sprite renderPointer : world.getNonsurfaces()) {
+			this.renderIfVisible(renderPointer, context, alpha);
+		}
+		
+		//Runs through the collectibles to render all of them
+		for(Sprite collect : world.getCollectibles()) {
+			this.renderIfVisible(collect, context, alpha);
+		}
+		
+		//updates camera to center itself on the slime
+		frameTimer.phase(FrameTimer.CAMERA);
+		cam.readjust(context);
+		cam.update(context, alpha);
+		frameTimer.phase(FrameTimer.OTHER);
+	}//end render
+	
+	//PRE: screenArea has been set for this frame.
+	//POST: The background is tiled outwards from (anchorX, anchorY) over exactly the visible screen, any part of a tile off screen isn't drawn.
+	private void drawBackground(GraphicsContext context, double anchorX, double anchorY) {
+		double tileWidth = background.getWidth();
+		double tileHeight = background.getHeight();
+		
+		//Without a background the previous frame is erased by filling only what is on screen
+		if(tileWidth <= 0 || tileHeight <= 0) {
+			context.setFill(Color.WHITE);
+			context.fillRect(screenArea.getX(), screenArea.getY(), screenArea.getWidth(), screenArea.getHeight());
+			return;
+		}//end if
+		
+		double left = screenArea.getX();
+		double top = screenArea.getY();
+		double right = left + screenArea.getWidth();
+		double bottom = top + screenArea.getHeight();
+		
+		//Only the tiles overlapping the screen are visited, and each is cut down to the part that is on screen
+		for(double tileY = anchorY + Math.floor((top - anchorY) / tileHeight) * tileHeight; tileY < bottom; tileY += tileHeight) {
+			for(double tileX = anchorX + Math.floor((left - anchorX) / tileWidth) * tileWidth; tileX < right; tileX += tileWidth) {
+				double x = Math.max(tileX, left);
+				double y = Math.max(tileY, top);
+				double width = Math.min(tileX + tileWidth, right) - x;
+				double height = Math.min(tileY + tileHeight, bottom) - y;
+				context.drawImage(background, x - tileX, y - tileY, width, height, x, y, width, height);
+			}//end for
+		}//end for
+	}//end drawBackground
+	
+	//PRE: viewport has been set for this frame.
+	//POST: sprite is drawn only if it is within the viewport, and the drawn or skipped count is updated.
+	private void renderIfVisible(Sprite sprite, GraphicsContext context, double alpha) {
+		if(!viewport.overlaps(sprite.getBoundary())) {
+			spritesSkipped++;
+			return;
+		}
+		sprite.render(context, alpha);
+		spritesDrawn++;
+	}//end renderIfVisible
 	
 	/**Adds a new observer to this Level object.
 	 * @param o The observer being added
@@ -857,8 +579,22 @@ public class Level implements LevelSubject{
 		//Pauses music on level exit
 		this.backgroundMusicPlayer.pause();
 		
+		//Saves how long each part of a frame took so far on this level
+		try {
+			frameTimer.writeCsv(new File(FRAME_TIMES_FOLDER, "level" + levelNum + ".csv"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		
+		//Saves every tick of input so far, so this play of the level can be replayed with ReplayRunner
+		try {
+			recording.write(new File(REPLAYS_FOLDER, "level" + levelNum + ".replay"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		
 		for(LevelObserver observer : observers) {
-			observer.update(switchCase, levelScore, levelTime);
+			observer.update(switchCase, world.getLevelScore(), world.getLevelTime());
 		}//end for
 		
 	}//end notifyObservers
@@ -876,40 +612,22 @@ public class Level implements LevelSubject{
 		this.levelBeaten.setVolume(volume * 0.0015);
 	}
 	
-	/** startGame will resume all relevant timers on a level including the game loop and background music */ 
+	/** startGame will resume the game loop, which the level clock runs on, and the background music */ 
 	//PRE: The level has already been generated.
-	//POST: Timers, music, and the gameloop are all resumed with fresh input.
+	//POST: Music and the gameloop are resumed with fresh input, the level clock carries on from the exact tick it was paused on.
 	public void startGame() {
-		this.resumeTimer();
 		this.inputs.clear();
 		this.backgroundMusicPlayer.play();
+		this.lastFrameTime = -1;
 		gameLoop.start();
 	}
 	
 	public void pauseGame() {
-		this.timer.cancel();
 		this.gameLoop.stop();
 		this.backgroundMusicPlayer.stop();
 		this.inputs.clear();
 	}
 	
-	//PRE: A timer has been created.
-	//POST: The level timer is "resumed" at the same time the old one was canceled.
-	private void resumeTimer() {
-		//There is no pause function so a new timer must be created, that counts
-		//down from where the old one left off.
-		this.timer = new Timer();
-		timer.scheduleAtFixedRate(new TimerTask() {
-			@Override
-			public void run() {
-				levelTime--;
-				timerText.setText("Time Remaining:\t" + Double.toString(levelTime));
-				if (levelTime == 0)
-					timer.cancel();
-			}//end run
-		}, 0,1000);
-	}//end resumeTimer
-	
 	//PRE: The levelScene has already been set.
 	//POST: The levelScene is returned; for purposes of continuing the game.
 	public Scene getLevelScene() {
@@ -919,5 +637,28 @@ public class Level implements LevelSubject{
 	public void setLevelScene(Scene levelScene) {
 		this.levelScene = levelScene;
 	}
+	
+	public World getWorld() {
+		return world;
+	}
+	
+	public int getLevelNum() {
+		return levelNum;
+	}
+	
+	//Returns whether the level was built for a window of this size, so it can be reset rather than built again
+	public boolean fits(int screenWidth, int screenHeight) {
+		return this.screenWidth == screenWidth && this.screenHeight == screenHeight;
+	}
+	
+	//Returns how many sprites were drawn in the last frame
+	public int getSpritesDrawn() {
+		return spritesDrawn;
+	}
+	
+	//Returns how many sprites were skipped for being off screen in the last frame
+	public int getSpritesSkipped() {
+		return spritesSkipped;
+	}
 
 }
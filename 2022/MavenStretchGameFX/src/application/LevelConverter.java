@@ -0,0 +1,59 @@
+package application;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/** LevelConverter compiles text level files into the binary format of BinaryLevel.
+ *  Usage: java -cp MavenStretchGameFX.jar application.LevelConverter inputFolder outputFolder
+ *  Every levelN.txt in inputFolder is written to outputFolder as levelN.bin.
+ *  */
+public class LevelConverter {
+
+	public static void main(String[] args) throws IOException {
+		if(args.length != 2) {
+			System.err.println("Usage: LevelConverter inputFolder outputFolder");
+			System.exit(1);
+		}
+
+		File[] files = new File(args[0]).listFiles();
+		if(files == null) throw new IllegalArgumentException(args[0] + " isn't a folder!");
+
+		File output = new File(args[1]);
+		output.mkdirs();
+		for(File file : files) {
+			if(!file.getName().endsWith(".txt")) continue;
+
+			String name = file.getName().substring(0, file.getName().length() - 4) + ".bin";
+			convert(file, new File(output, name));
+			System.out.println("Converted " + file + " to " + name);
+		}//end for
+	}//end main
+
+	/** Compiles one text level file into a binary level file
+	 * @param text The text level file
+	 * @param binary Where the binary level file is written
+	 * */
+	//POST: binary holds the same level as text. Throws an IllegalArgumentException naming the line of any mistake in text.
+	public static void convert(File text, File binary) throws IOException {
+		LevelData level;
+		InputStream in = new FileInputStream(text);
+		try {
+			level = LevelLoader.parse(in);
+		} finally {
+			in.close();
+		}
+
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(binary));
+		try {
+			BinaryLevel.write(level, out);
+		} finally {
+			out.close();
+		}
+	}//end convert
+
+}//end LevelConverter
@@ -0,0 +1,61 @@
+package application;
+
+import java.util.ArrayList;
+
+/** LevelData is a level file read into memory, it is what the text and binary level formats are converted through */
+public class LevelData {
+
+	//Entity types, their numbers are what the binary format stores and their names are what the text format uses
+	public static final int SURFACE = 0;		//Solid scenery that can be stood on (e.g floors, walls)
+	public static final int HAZARD = 1;			//A solid surface that also damages the player (e.g spikes)
+	public static final int PHYSICS = 2;		//A PhysicsSprite that can be pushed (e.g crates)
+	public static final int ENEMY = 3;
+	public static final int PLAYER = 4;
+	public static final int FINISH = 5;			//The goal post
+	public static final int SCENERY = 6;		//Drawn but never interacted with (e.g tutorial messages)
+	public static final int COLLECTIBLE = 7;	//Picked up by the player (e.g gems)
+	public static final String[] TYPE_NAMES = {"surface", "hazard", "physics", "enemy", "player", "finish", "scenery", "collectible"};
+
+	private int levelTime; //The level's time limit in seconds
+	private ArrayList<Entity> entities = new ArrayList<Entity>(); //Every entity in the order it is listed in the file
+
+	/** Entity is one line of a level file */
+	public static class Entity {
+		int type;				//One of the type constants above
+		String image;			//The path to the entity's picture
+		String rightImage;		//The path to the picture an enemy uses when facing right, null if it has none
+		double x;
+		double y;
+		double width;			//The hitbox width, so a level can be loaded without decoding its pictures
+		double height;			//The hitbox height
+		Boolean solid;			//Whether the entity is solid, null if it uses its type's default
+		double mass;			//Only used by physics, enemy, and player entities
+		double gravity;			//Only used by physics, enemy, and player entities
+		double health;			//Only used by enemy and player entities
+	}//end Entity
+
+	/** Gets the number of a type from its name
+	 * @param name The name the text format uses (e.g "surface")
+	 * */
+	//POST: Returns the type constant, throws an IllegalArgumentException if there is no type with that name.
+	public static int typeOf(String name) {
+		for(int i = 0; i < TYPE_NAMES.length; i++) {
+			if(TYPE_NAMES[i].equals(name)) return i;
+		}//end for
+		throw new IllegalArgumentException("unknown entity type " + name);
+	}//end typeOf
+
+	//Generic getters and setters
+	public int getLevelTime() {
+		return levelTime;
+	}
+
+	public void setLevelTime(int levelTime) {
+		this.levelTime = levelTime;
+	}
+
+	public ArrayList<Entity> getEntities() {
+		return entities;
+	}
+
+}//end LevelData
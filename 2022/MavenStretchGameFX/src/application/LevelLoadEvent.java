@@ -0,0 +1,25 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** LevelLoadEvent is a Java Flight Recorder event covering a level being read into a World */
+@Name("stretchgame.LevelLoad")
+@Label("Level Load")
+@Category({"Stretch Game", "Levels"})
+public class LevelLoadEvent extends jdk.jfr.Event {
+
+	@Label("Level")
+	int level;
+
+	@Label("Source")
+	String source; //Where the level was read from (e.g "Levels/level1.bin" or "resource:/Levels/level1.txt" inside the jar)
+
+	@Label("Entities")
+	int entities;
+
+	@Label("Pictures Loaded")
+	boolean pictures;
+
+}//end LevelLoadEvent
@@ -0,0 +1,316 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/** LevelLoader fills a World from a level file, so levels are data instead of code and can be added without recompiling.
+ *
+ *  A level file is plain text, blank lines and lines starting with '#' are ignored. It has one "time" line for
+ *  the level's time limit in seconds and one line per entity in the form: type image x y width height [property=value ...]
+ *
+ *  The types are surface, hazard, physics, enemy, player, finish, scenery, and collectible.
+ *  The properties are solid, mass, gravity, health, and rightImage (the picture an enemy uses when facing right).
+ *
+ *  A level can also be compiled into the binary format of BinaryLevel (levelN.bin), which is loaded instead of the text when it exists.
+ *  */
+public class LevelLoader {
+
+	//Level files are looked for in this folder of the working directory first so they can be edited without rebuilding the jar,
+	//then inside the jar under the same name
+	public static final String LEVEL_FOLDER = "Levels";
+
+	//Values a property has when a line doesn't give one, matching the values the original levels were built with
+	private static final double DEFAULT_MASS = 1;
+	private static final double DEFAULT_GRAVITY = .5;
+	private static final double DEFAULT_HEALTH = 200;
+
+	//LevelLoader is only used statically
+	private LevelLoader() {}
+
+	/** Checks if a level file exists for a level number
+	 * @param levelNum The number of the level
+	 * */
+	public static boolean exists(int levelNum) {
+		return new File(LEVEL_FOLDER, fileName(levelNum, ".bin")).isFile() || new File(LEVEL_FOLDER, fileName(levelNum, ".txt")).isFile()
+			|| LevelLoader.class.getResource(resourceName(levelNum, ".bin")) != null || LevelLoader.class.getResource(resourceName(levelNum, ".txt")) != null;
+	}//end exists
+
+	/** Loads a level by number into a World
+	 * @param levelNum The number of the level, read from Levels/level[levelNum].bin or Levels/level[levelNum].txt
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity in the level is added to world and its level time is set. Throws an IllegalArgumentException if no such level exists.
+	public static void load(int levelNum, World world, boolean loadPictures) throws IOException {
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+
+		String source = loadFrom(levelNum, world, loadPictures);
+
+		event.end();
+		if(event.shouldCommit()) {
+			event.level = levelNum;
+			event.source = source;
+			event.entities = world.getSurfaces().size() + world.getNonsurfaces().size() + world.getCollectibles().size();
+			event.pictures = loadPictures;
+			event.commit();
+		}//end if
+	}//end load
+
+	//Loads a level from the first place it is found, returning where that was
+	private static String loadFrom(int levelNum, World world, boolean loadPictures) throws IOException {
+		//A binary level in the Levels folder is memory mapped rather than read
+		File binary = new File(LEVEL_FOLDER, fileName(levelNum, ".bin"));
+		if(binary.isFile()) {
+			BinaryLevel.load(binary, world, loadPictures);
+			return binary.getPath();
+		}
+
+		File text = new File(LEVEL_FOLDER, fileName(levelNum, ".txt"));
+		if(text.isFile()) {
+			InputStream in = new FileInputStream(text);
+			try {
+				load(in, world, loadPictures);
+			} finally {
+				in.close();
+			}
+			return text.getPath();
+		}
+
+		//Files inside the jar can't be mapped, so a binary level there is read into memory first
+		InputStream in = LevelLoader.class.getResourceAsStream(resourceName(levelNum, ".bin"));
+		boolean isBinary = in != null;
+		if(!isBinary) in = LevelLoader.class.getResourceAsStream(resourceName(levelNum, ".txt"));
+		if(in == null) throw new IllegalArgumentException("The level " + levelNum + " doesn't exist!");
+
+		try {
+			if(isBinary) BinaryLevel.load(in, world, loadPictures);
+			else load(in, world, loadPictures);
+		} finally {
+			in.close();
+		}
+		return "resource:" + resourceName(levelNum, isBinary ? ".bin" : ".txt");
+	}//end loadFrom
+
+	/** Reads a level by number without creating any of its entities, so the same level can be built again and again (e.g on every restart)
+	 * @param levelNum The number of the level, read from Levels/level[levelNum].bin or Levels/level[levelNum].txt
+	 * */
+	//POST: Returns the level's time and entities in order, from the first place it is found. Throws an IllegalArgumentException if no such level exists.
+	public static LevelData read(int levelNum) throws IOException {
+		LevelLoadEvent event = new LevelLoadEvent();
+		event.begin();
+
+		LevelData level = readFrom(levelNum, event);
+
+		event.end();
+		if(event.shouldCommit()) {
+			event.level = levelNum;
+			event.entities = level.getEntities().size();
+			event.pictures = false;
+			event.commit();
+		}//end if
+		return level;
+	}//end read
+
+	//Reads a level from the first place it is found, noting where that was in event
+	private static LevelData readFrom(int levelNum, LevelLoadEvent event) throws IOException {
+		File binary = new File(LEVEL_FOLDER, fileName(levelNum, ".bin"));
+		event.source = binary.getPath();
+		if(binary.isFile()) return BinaryLevel.read(binary);
+
+		File text = new File(LEVEL_FOLDER, fileName(levelNum, ".txt"));
+		event.source = text.getPath();
+		if(text.isFile()) {
+			InputStream in = new FileInputStream(text);
+			try {
+				return parse(in);
+			} finally {
+				in.close();
+			}
+		}//end if
+
+		InputStream in = LevelLoader.class.getResourceAsStream(resourceName(levelNum, ".bin"));
+		boolean isBinary = in != null;
+		if(!isBinary) in = LevelLoader.class.getResourceAsStream(resourceName(levelNum, ".txt"));
+		if(in == null) throw new IllegalArgumentException("The level " + levelNum + " doesn't exist!");
+		event.source = "resource:" + resourceName(levelNum, isBinary ? ".bin" : ".txt");
+
+		try {
+			return isBinary ? BinaryLevel.read(in) : parse(in);
+		} finally {
+			in.close();
+		}
+	}//end readFrom
+
+	/** Loads a level from a stream of level file text into a World
+	 * @param in The level file text
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity read is added to world and its level time is set. Throws an IllegalArgumentException naming the line of any mistake in the file.
+	public static void load(InputStream in, World world, boolean loadPictures) throws IOException {
+		build(parse(in), world, loadPictures);
+	}//end load
+
+	/** Reads level file text without creating any of its entities
+	 * @param in The level file text
+	 * */
+	//POST: Returns the level's time and entities in the order they were listed. Throws an IllegalArgumentException naming the line of any mistake in the file.
+	public static LevelData parse(InputStream in) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		LevelData level = new LevelData();
+
+		boolean hasPlayer = false;
+		int lineNum = 0;
+		String line;
+		while((line = reader.readLine()) != null) {
+			lineNum++;
+			line = line.trim();
+			if(line.isEmpty() || line.startsWith("#")) continue;
+
+			String[] parts = line.split("\\s+");
+			try {
+				if(parts[0].equals("time")) {
+					if(parts.length != 2) throw new IllegalArgumentException("expected: time seconds");
+					level.setLevelTime(Integer.parseInt(parts[1]));
+				}
+				else {
+					LevelData.Entity entity = parseEntity(parts);
+					hasPlayer |= entity.type == LevelData.PLAYER;
+					level.getEntities().add(entity);
+				}//end if
+			} catch(IllegalArgumentException e) {
+				//NumberFormatException is also an IllegalArgumentException
+				throw new IllegalArgumentException("Line " + lineNum + " of the level is invalid, " + e.getMessage(), e);
+			}//end try
+		}//end while
+
+		if(!hasPlayer) throw new IllegalArgumentException("The level has no player!");
+		return level;
+	}//end parse
+
+	/** Creates every entity of a level inside a World
+	 * @param level The level read by parse() or BinaryLevel
+	 * @param world The World the level's entities are added to
+	 * @param loadPictures Whether each entity's picture is loaded, false lets a level be simulated without a display
+	 * */
+	//PRE: world is empty and has not been started.
+	//POST: Every entity in level is added to world in order and its level time is set.
+	public static void build(LevelData level, World world, boolean loadPictures) {
+		world.setLevelTime(level.getLevelTime());
+		for(LevelData.Entity e : level.getEntities()) {
+			addEntity(world, loadPictures, e.type, e.image, e.rightImage, e.x, e.y, e.width, e.height, e.solid, e.mass, e.gravity, e.health);
+		}//end for
+	}//end build
+
+	//PRE: parts is a split entity line.
+	//POST: Returns the entity the line describes, with defaults filled in for any property it didn't give.
+	private static LevelData.Entity parseEntity(String[] parts) {
+		if(parts.length < 6) throw new IllegalArgumentException("expected: type image x y width height [property=value ...]");
+
+		LevelData.Entity entity = new LevelData.Entity();
+		entity.type = LevelData.typeOf(parts[0]);
+		entity.image = parts[1];
+		entity.x = Double.parseDouble(parts[2]);
+		entity.y = Double.parseDouble(parts[3]);
+		entity.width = Double.parseDouble(parts[4]);
+		entity.height = Double.parseDouble(parts[5]);
+		entity.mass = DEFAULT_MASS;
+		entity.gravity = DEFAULT_GRAVITY;
+		entity.health = DEFAULT_HEALTH;
+
+		for(int i = 6; i < parts.length; i++) {
+			int split = parts[i].indexOf('=');
+			if(split < 0) throw new IllegalArgumentException("expected property=value but found " + parts[i]);
+
+			String key = parts[i].substring(0, split);
+			String value = parts[i].substring(split + 1);
+			switch(key) {
+				case "solid": 		entity.solid = Boolean.valueOf(value);
+									break;
+				case "mass": 		entity.mass = Double.parseDouble(value);
+									break;
+				case "gravity": 	entity.gravity = Double.parseDouble(value);
+									break;
+				case "health": 		entity.health = Double.parseDouble(value);
+									break;
+				case "rightImage": 	entity.rightImage = value;
+									break;
+				default: throw new IllegalArgumentException("unknown property " + key);
+			}//end switch
+		}//end for
+
+		return entity;
+	}//end parseEntity
+
+	//PRE: type is one of the LevelData type constants.
+	//POST: The entity is created and added to world in the list(s) its type belongs to.
+	static void addEntity(World world, boolean loadPictures, int type, String image, String rightImage, double x, double y,
+			double width, double height, Boolean solid, double mass, double gravity, double health) {
+		Sprite sprite;
+		switch(type) {
+			case LevelData.SURFACE:		sprite = new Sprite();
+										sprite.setSolid(true);
+										world.addSurface(sprite);
+										break;
+
+			case LevelData.HAZARD:		sprite = new Sprite();
+										sprite.setSolid(true);
+										world.addSurface(sprite);
+										world.addHazard(sprite);
+										break;
+
+			case LevelData.PHYSICS:		sprite = new PhysicsSprite(mass, gravity);
+										world.addSurface(sprite);
+										break;
+
+			case LevelData.ENEMY:		if(loadPictures && rightImage != null)
+											sprite = new Enemy(mass, gravity, health, rightImage, image);
+										else
+											sprite = new Enemy(mass, gravity, health);
+										world.addSurface(sprite);
+										break;
+
+			case LevelData.PLAYER:		sprite = new PlayerObject(mass, gravity, health);
+										world.setPlayer((PlayerObject)sprite);
+										break;
+
+			case LevelData.FINISH:		sprite = new Sprite();
+										world.setFinish(sprite);
+										break;
+
+			case LevelData.SCENERY:		sprite = new Sprite();
+										world.addScenery(sprite);
+										break;
+
+			case LevelData.COLLECTIBLE:	sprite = new Sprite();
+										world.addCollectible(sprite);
+										break;
+
+			default: throw new IllegalArgumentException("unknown entity type " + type);
+		}//end switch
+
+		if(solid != null) sprite.setSolid(solid);
+
+		//The hitbox comes from the file rather than the picture so a level can be loaded without decoding any pictures
+		if(loadPictures) sprite.setImage(ImageCache.get(image));
+		sprite.setBoundary(new Rectangle(0, 0, width, height));
+		sprite.getPosition().set(x, y);
+	}//end addEntity
+
+	private static String fileName(int levelNum, String extension) {
+		return "level" + levelNum + extension;
+	}
+
+	private static String resourceName(int levelNum, String extension) {
+		return "/" + LEVEL_FOLDER + "/" + fileName(levelNum, extension);
+	}
+
+}//end LevelLoader
@@ -0,0 +1,83 @@
+package application;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import javafx.scene.media.AudioClip;
+import javafx.scene.media.Media;
+
+/** LevelResources is everything a Level needs that doesn't belong to a window: the level read from its file, every picture
+ *  its entities use decoded into the ImageCache, and its sounds. None of it touches the scene graph, so it can be loaded on
+ *  a background thread (e.g while the victory screen is showing) and the Level built from it straight away.
+ *  */
+public class LevelResources {
+
+	private final int levelNum;
+	private LevelData levelData; //The level as it was read from its file
+	private Media music; //The background music, null if it couldn't be found
+	private AudioClip gemCollected; //Played on gem collection, null if it couldn't be found
+	private AudioClip levelBeaten; //Played on level completion, null if it couldn't be found
+
+	//LevelResources are only made by load()
+	private LevelResources(int levelNum) {
+		this.levelNum = levelNum;
+	}
+
+	/** Reads a level and loads every picture and sound it uses
+	 * @param levelNum The number of the level
+	 * */
+	//PRE: Called from any thread.
+	//POST: Returns the level's resources with its pictures in the ImageCache. Throws an IllegalArgumentException if the level can't be read.
+	public static LevelResources load(int levelNum) {
+		LevelResources resources = new LevelResources(levelNum);
+		try {
+			resources.levelData = LevelLoader.read(levelNum);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The level " + levelNum + " couldn't be read!", e);
+		}
+
+		//Every picture is decoded now so building the level's sprites only looks them up
+		ImageCache.get(AssetManifest.LEVEL_BACKGROUND);
+		PlayerObject.loadImages();
+		for(LevelData.Entity entity : resources.levelData.getEntities()) {
+			ImageCache.get(entity.image);
+			if(entity.rightImage != null) ImageCache.get(entity.rightImage);
+		}//end for
+
+		//Sound effects are loaded here instead of by the entities so the World can be run without them
+		PlayerObject.loadSounds();
+		Enemy.loadSounds();
+
+		try {
+			resources.music = new Media(LevelResources.class.getResource(AssetManifest.LEVEL_MUSIC).toURI().toString());
+		} catch (URISyntaxException e) {
+			e.printStackTrace();
+		}
+
+		resources.gemCollected = SoundCache.get(AssetManifest.GEM_COLLECTED);
+		resources.levelBeaten = SoundCache.get(AssetManifest.LEVEL_BEATEN);
+
+		return resources;
+	}//end load
+
+	public int getLevelNum() {
+		return levelNum;
+	}
+
+	public LevelData getLevelData() {
+		return levelData;
+	}
+
+	public Media getMusic() {
+		return music;
+	}
+
+	public AudioClip getGemCollected() {
+		return gemCollected;
+	}
+
+	public AudioClip getLevelBeaten() {
+		return levelBeaten;
+	}
+
+}//end LevelResources
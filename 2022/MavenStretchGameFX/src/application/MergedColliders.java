@@ -0,0 +1,189 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/** MergedColliders is a Broadphase that stands one large collider in for each run of static tiles laid edge to edge
+ *  (e.g a floor built from several Floor.png pictures or a row of spikes), and keeps everything in another Broadphase.
+ *
+ *  The tiles stay in the World's lists and are still drawn, but whenever one is inserted its collider is inserted instead,
+ *  so PhysicsSprites test against one box rather than one per tile and no longer catch on the seams between them.
+ *  A collider covers exactly the area its tiles did, so nothing is solid that wasn't before.
+ *  */
+public class MergedColliders implements Broadphase {
+
+	private final Broadphase broadphase; //The broadphase the colliders and every Sprite that wasn't merged are kept in
+
+	private IdentityHashMap<Sprite, Collider> colliders = new IdentityHashMap<Sprite, Collider>(); //Every merged tile and the collider standing in for it
+	private Set<Sprite> inserted = Collections.newSetFromMap(new IdentityHashMap<Sprite, Boolean>()); //Merged tiles that are currently inserted
+	private int nextOrder = 0;
+
+	private int tilesMerged = 0; //How many tiles are covered by colliders
+	private int colliderCount = 0; //How many colliders they were merged into
+
+	//A rectangle covering one or more tiles, and the Sprite that stands in for them once it covers more than one
+	private static class Collider {
+		private double x, y, width, height;
+		private ArrayList<Sprite> tiles = new ArrayList<Sprite>();
+		private int order; //The lowest order of its tiles, where it sorts in query results
+		private int present; //How many of its tiles are inserted, it is in the broadphase while any are
+		private Sprite sprite;
+	}//end Collider
+
+	//Lines tiles up into rows, sorted by top then height then left edge
+	private static final Comparator<Collider> BY_ROW = new Comparator<Collider>() {
+		public int compare(Collider a, Collider b) {
+			if(a.y != b.y) return Double.compare(a.y, b.y);
+			if(a.height != b.height) return Double.compare(a.height, b.height);
+			return Double.compare(a.x, b.x);
+		}
+	};
+
+	//Lines rows up into columns, sorted by left edge then width then top
+	private static final Comparator<Collider> BY_COLUMN = new Comparator<Collider>() {
+		public int compare(Collider a, Collider b) {
+			if(a.x != b.x) return Double.compare(a.x, b.x);
+			if(a.width != b.width) return Double.compare(a.width, b.width);
+			return Double.compare(a.y, b.y);
+		}
+	};
+
+	/** Constructs a MergedColliders with nothing merged yet
+	 * @param broadphase An empty broadphase that everything inserted is kept in
+	 * */
+	public MergedColliders(Broadphase broadphase) {
+		this.broadphase = broadphase;
+	}//end MergedColliders constructor
+
+	/** Merges every run of solid, non-physics Sprites that touch or overlap and aren't moving into as few rectangles as it can
+	 * @param surfaces The full list of surfaces, the orders Sprites are later inserted with are their indexes in it
+	 * */
+	//PRE: Called once before anything is inserted. No Sprite in surfaces that isn't a PhysicsSprite starts moving afterwards.
+	//POST: Each rectangle covering more than one tile has a solid Sprite that is inserted in place of those tiles.
+	public void merge(ArrayList<Sprite> surfaces) {
+		//Every static tile starts out as a collider of its own
+		ArrayList<Collider> pieces = new ArrayList<Collider>();
+		for(int i = 0; i < surfaces.size(); i++) {
+			Sprite sprite = surfaces.get(i);
+			//Moving scenery keeps its own entry so the broadphase follows it
+			if(sprite instanceof PhysicsSprite || !sprite.isSolid() || sprite.isMoving()) continue;
+
+			Collider piece = new Collider();
+			piece.x = sprite.getBoundaryX();
+			piece.y = sprite.getBoundaryY();
+			piece.width = sprite.getBoundaryWidth();
+			piece.height = sprite.getBoundaryHeight();
+			piece.tiles.add(sprite);
+			piece.order = i;
+			pieces.add(piece);
+		}//end for
+
+		//Tiles side by side with the same top and height join into rows, then rows stacked with the same left edge and width join into blocks
+		ArrayList<Collider> blocks = join(join(pieces, BY_ROW, true), BY_COLUMN, false);
+
+		for(Collider block : blocks) {
+			if(block.tiles.size() < 2) continue;
+
+			block.sprite = new Sprite();
+			block.sprite.setSolid(true);
+			block.sprite.setBoundary(new Rectangle(0, 0, block.width, block.height));
+			block.sprite.setPosition(block.x, block.y);
+			for(Sprite tile : block.tiles) colliders.put(tile, block);
+
+			tilesMerged += block.tiles.size();
+			colliderCount++;
+		}//end for
+	}//end merge
+
+	//PRE: order sorts pieces so the ones that can join are next to each other along the axis being joined on.
+	//POST: Returns the pieces with every one that lines up with and touches or overlaps the one before it joined into it.
+	private static ArrayList<Collider> join(ArrayList<Collider> pieces, Comparator<Collider> order, boolean horizontal) {
+		Collections.sort(pieces, order);
+		ArrayList<Collider> joined = new ArrayList<Collider>();
+		Collider run = null;
+		for(Collider piece : pieces) {
+			//Only pieces with the same edges across the axis are joined, so the result is always exactly the area they covered
+			boolean joins = run != null && (horizontal
+					? run.y == piece.y && run.height == piece.height && piece.x <= run.x + run.width
+					: run.x == piece.x && run.width == piece.width && piece.y <= run.y + run.height);
+
+			if(!joins) {
+				run = piece;
+				joined.add(run);
+				continue;
+			}//end if
+
+			if(horizontal) run.width = Math.max(run.width, piece.x + piece.width - run.x);
+			else run.height = Math.max(run.height, piece.y + piece.height - run.y);
+			run.tiles.addAll(piece.tiles);
+			run.order = Math.min(run.order, piece.order);
+		}//end for
+		return joined;
+	}//end join
+
+	@Override
+	public void insert(Sprite sprite) {
+		this.insert(sprite, nextOrder);
+	}
+
+	//POST: A merged tile puts its collider in the broadphase if none of its other tiles already has, anything else goes in as it is.
+	@Override
+	public void insert(Sprite sprite, int order) {
+		nextOrder = Math.max(nextOrder, order + 1);
+
+		Collider collider = colliders.get(sprite);
+		if(collider == null) {
+			broadphase.insert(sprite, order);
+			return;
+		}//end if
+
+		if(inserted.add(sprite) && collider.present++ == 0) broadphase.insert(collider.sprite, collider.order);
+	}//end insert
+
+	//POST: A merged tile takes its collider out of the broadphase once none of its tiles are left in.
+	@Override
+	public void remove(Sprite sprite) {
+		Collider collider = colliders.get(sprite);
+		if(collider == null) {
+			broadphase.remove(sprite);
+			return;
+		}//end if
+
+		if(inserted.remove(sprite) && --collider.present == 0) broadphase.remove(collider.sprite);
+	}//end remove
+
+	//Merged tiles never move, so only other Sprites are passed on
+	@Override
+	public void update(Sprite sprite) {
+		if(!colliders.containsKey(sprite)) broadphase.update(sprite);
+	}
+
+	@Override
+	public void refresh() {
+		broadphase.refresh();
+	}
+
+	@Override
+	public void query(Rectangle area, ArrayList<Sprite> out) {
+		broadphase.query(area, out);
+	}
+
+	@Override
+	public int size() {
+		return broadphase.size();
+	}
+
+	//Returns how many tiles are covered by colliders
+	public int getTilesMerged() {
+		return tilesMerged;
+	}
+
+	//Returns how many colliders the merged tiles became
+	public int getColliderCount() {
+		return colliderCount;
+	}
+
+}//end MergedColliders
@@ -1,7 +1,6 @@
 package application;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /** PhysicsSprite is an instance of a Sprite that has physical properties like mass and can be affected by other PhysicsSprites */
 public class PhysicsSprite extends Sprite {
@@ -14,6 +13,24 @@ public class PhysicsSprite extends Sprite {
 	
 	private boolean justCollidedStatically; //A flag indicating if a PhysicsSprite is backed up against somewhere it can't be pushed past like an unmovable wall.
 	
+	private Broadphase broadphase; //Optional broadphase used to only check nearby sprites, when null every surface is checked.
+	private ArrayList<Sprite> nearby = new ArrayList<Sprite>(32); //Reused list of sprites the broadphase found near this PhysicsSprite, sized for a crowded spot so it doesn't grow mid-level
+	private Rectangle searchArea = new Rectangle(0, 0, 0, 0); //Reused area the broadphase is searched with
+	private Vector collisionVelocity = new Vector(0, 0); //Reused by collide so a tick never allocates
+	
+	private int pairsTested; //How many solid sprites the last collide tested for an overlap, for profiling
+	private int collisionPairs; //How many of those actually overlapped this PhysicsSprite
+	private int bodiesWoken; //How many sleeping PhysicsSprites the last collide woke up
+	
+	public static final int SLEEP_TICKS = 60; //How many ticks in a row a body must stay still before it falls asleep
+	private static final double STILL = 0.01; //The most a body can move or be moving by in a tick and still count as still
+	
+	private boolean asleep = false; //Whether the World skips updating this PhysicsSprite until it is disturbed
+	private int stillTicks = 0; //How many ticks in a row this PhysicsSprite has been still
+	private double stillX, stillY; //Where it has been still at
+	private Sprite support; //What it landed on in the last fall, null if it is falling
+	private double supportX, supportY; //Where support was when this PhysicsSprite fell asleep
+	
 	/** Constructs a PhysicsSprite
 	 * @param mass A double determining what the sprite can be moved by
 	 * @param gravity The rate at which the sprite will fall 
@@ -33,7 +50,7 @@ public class PhysicsSprite extends Sprite {
 	//Post: This PhysicsSprite's location is updated and checked against other sprites.
 	public void update(ArrayList<Sprite> surfaces) {
 		//Resets static collision and momentum so it won't continually act as if its being hit by something before checking.
-		this.justCollidedStatically = false;
+		this.setJustCollidedStatically(false);
 		this.setMomentum(this.getMass());
 		
 		
@@ -46,44 +63,71 @@ public class PhysicsSprite extends Sprite {
 			this.getTempVelocity().decay();
 		}
 		
-		this.collide(surfaces); //Checks for collisions
+		this.collide(this.nearby(surfaces)); //Checks for collisions
 		
 		this.addPosition(getTotalVelocity()); //Updates position
 		
-		this.fall(surfaces); //Updates velocity to reflect whether PhysicsSprite is falling or not
+		this.fall(this.nearby(surfaces)); //Updates velocity to reflect whether PhysicsSprite is falling or not
+		
+		if(broadphase != null) broadphase.update(this);
 	}//end update
 	
+	/** Narrows surfaces down to the ones near this PhysicsSprite using the broadphase, if there is one.
+	 * @param surfaces A list of ALL other Sprites the PhysicsSprite can interact with
+	 * */
+	//PRE: surfaces holds the same Sprites that were inserted into the broadphase.
+	//POST: Returns surfaces itself with no broadphase, otherwise the sprites around this in the same order as surfaces.
+	protected ArrayList<Sprite> nearby(ArrayList<Sprite> surfaces) {
+		//Searches an area padded by half this sprite's size, as far as collide can push it, plus the 60 pixel range onSurface checks below it
+		double padX = this.getBoundaryWidth()/2 + 1;
+		double padY = this.getBoundaryHeight()/2 + 61;
+		searchArea.setPosition(this.getBoundaryX() - padX, this.getBoundaryY() - padY);
+		searchArea.setWidth(this.getBoundaryWidth() + padX*2);
+		searchArea.setHeight(this.getBoundaryHeight() + padY*2);
+		return this.nearby(surfaces, searchArea);
+	}//end nearby
+	
+	/** Narrows surfaces down to the ones near an area using the broadphase, if there is one.
+	 * @param surfaces A list of ALL other Sprites the PhysicsSprite can interact with
+	 * @param area The area sprites are being searched around
+	 * */
+	protected ArrayList<Sprite> nearby(ArrayList<Sprite> surfaces, Rectangle area) {
+		if(broadphase == null) return surfaces;
+		broadphase.query(area, nearby);
+		return nearby;
+	}//end nearby
+	
 	/**Method updates sprites velocity based on whether it should be falling or not.
 	 * @param surfaces A list of all the sprites PhysicsSprite may land on
 	 * */
 	//PRE: Surfaces is a non-empty ArrayList of non-null Sprites that PhysicsSprite may land on.
 	//POST: This PhysicsSprite either falls at a rate consistent with its gravity or lands on a surface.
 	public void fall(ArrayList<Sprite> surfaces) {	
-		//pointer is used to check each Sprite from surfaces in conjunction with the it Iterator
-		Iterator<Sprite> it = surfaces.iterator();
+		//pointer is used to check each Sprite from surfaces, indexed instead of iterated so no Iterator is allocated
 		Sprite pointer = null;
 		
-		//While it has Sprites checks this PhysicsObject against them.
-		while(it.hasNext()) {
-			pointer = it.next();
+		//Checks this PhysicsObject against every Sprite in surfaces.
+		for(int i = 0; i < surfaces.size(); i++) {
+			pointer = surfaces.get(i);
 			
 
 			
 			//Checks if pointer has landed on a surface.
 			//Y component of Velocity must be > 0 to indicate it is landing.
 			if( this.onSurface(pointer) && this.getVelocityY() >= 0 ) {
-				onSurface = true;
+				this.setOnSurface(true);
+				support = pointer;
 				break; //Breaks out of loop once sprite can land
 			}//end if
 			else {
-				onSurface = false;
+				this.setOnSurface(false);
 			}//end else
 			
-		}//end while
+		}//end for
 		
 		//Checks onSurface if true and there is a valid pointer PhysicsSprite stops falling and 
 		//has its yposition set to land on it.
-		if(onSurface && pointer != null) {
+		if(this.isOnSurface() && pointer != null) {
 
 			this.landOn(pointer);
 
@@ -92,7 +136,8 @@ public class PhysicsSprite extends Sprite {
 		//Otherwise this object's velocity increases by gravity downwards.
 		//MUST be outside while loop, as otherwise it would add for every object in it.
 		else {
-			this.addVelocity(0, gravity);
+			support = null;
+			this.addVelocity(0, this.getGravity());
 		}//end else
 		
 	}//end fall
@@ -113,33 +158,40 @@ public class PhysicsSprite extends Sprite {
 	 * @param collidables A list of all the sprites PhysicsSprite can collide with.
 	 * */
 	public void collide(ArrayList<Sprite> collidables) {
-		Iterator<Sprite> it = collidables.iterator();
 		Sprite collidablePointer = null;
 		
 		double collisionScale = 0.5; //Value collisionVelocity is scaled down to
 		
-		Vector collisionVelocity = new Vector(0,0); //vector that will be added to decayingVelocity to represent the collision moving this
+		collisionVelocity.set(0, 0); //vector that will be added to decayingVelocity to represent the collision moving this
+		pairsTested = 0;
+		collisionPairs = 0;
+		bodiesWoken = 0;
 		
 		//Loop iterates through all sprites from collidables seeing if this PhysicsSprite should be moved by any of them
-		while(it.hasNext()) {
+		for(int i = 0; i < collidables.size(); i++) {
 			
-			collidablePointer = it.next();
+			collidablePointer = collidables.get(i);
 			
-			//Can't collide if it isn't solid so skips (platforms and background images weeded out here)
-			if(!collidablePointer.isSolid()) continue;
+			//Can't collide if it isn't solid or is itself so skips (platforms and background images weeded out here)
+			if(!collidablePointer.isSolid() || this == collidablePointer) continue;
+			pairsTested++;
 			
-			//Skips over anything that isn't overlapping the sprite or is itself
-			if(!this.overlaps(collidablePointer) || this == collidablePointer) continue;
+			//Skips over anything that isn't overlapping the sprite
+			if(!this.overlaps(collidablePointer)) continue;
+			collisionPairs++;
 		
 			//Handles collisions for non-physics based sprites that still move or are solid
 			if( !(collidablePointer instanceof PhysicsSprite) ) {
-				collisionVelocity.add(this.staticCollision(collidablePointer));
+				this.staticCollision(collidablePointer);
 				continue;
 			}
 			
 			//If loop gets this far the collidable must be an instance of PhysicsSprite
 			PhysicsSprite physicsCollidable = (PhysicsSprite)collidablePointer;
 			
+			//Bumping into a sleeping body wakes it, unless this has been still too so bodies resting against each other can both sleep
+			if(stillTicks == 0 && physicsCollidable.wake()) bodiesWoken++;
+			
 
 			
 			//Checks if this PhysicsSprite has been hit from below
@@ -152,8 +204,10 @@ public class PhysicsSprite extends Sprite {
 				collisionVelocity.scale(collisionScale);
 				
 				//The conditional here helps ensures that a sprite won't be pushed below ground
-				if( !(physicsCollidable.isOnSurface()) && (physicsCollidable.getBoundaryY() >= this.getBoundaryY() + this.getBoundaryHeight())) 
+				if( !(physicsCollidable.isOnSurface()) && (physicsCollidable.getBoundaryY() >= this.getBoundaryY() + this.getBoundaryHeight())) {
 					physicsCollidable.setPosition(physicsCollidable.getBoundaryX(), this.getBoundaryY() + this.getBoundaryHeight() + 1);
+					if(broadphase != null) broadphase.update(physicsCollidable);
+				}
 				
 				continue;
 				
@@ -166,18 +220,19 @@ public class PhysicsSprite extends Sprite {
 				
 				//If statement ensures objects can't be moved into non-movable objects like walls.
 				//Effectively pauses motion if a series of objects are running another one into a wall.
-				if(physicsCollidable.justCollidedStatically) {
+				if(physicsCollidable.isJustCollidedStatically()) {
 					this.setPosition(physicsCollidable.getBoundaryX() + physicsCollidable.getBoundaryWidth() + 1, this.getBoundaryY());
 					this.getTotalVelocity().setX(0);
 					continue;
 				}//end if
 				
 				physicsCollidable.setPosition(this.getBoundaryX() - physicsCollidable.getBoundaryWidth() - 1, physicsCollidable.getBoundaryY());
+				if(broadphase != null) broadphase.update(physicsCollidable);
 				
 				//If physicsCollidable has a lesser momentum than this PhysicsSprite velocity won't be updated as physicsCollidable can't move this.
 				if(physicsCollidable.getMomentum() < this.getMomentum()) continue;
 				
-				this.momentum = physicsCollidable.momentum; //Updates this PhysicsSprite's momentum to match the physicsCollidable
+				this.setMomentum(physicsCollidable.getMomentum()); //Updates this PhysicsSprite's momentum to match the physicsCollidable
 				
 				//If an object is running into this from the left, adds velocity to this so it will be moved
 				if(physicsCollidable.getTotalVelocity().getX() > 0) {
@@ -196,18 +251,19 @@ public class PhysicsSprite extends Sprite {
 				
 				//If statement ensures objects can't be moved into non-movable objects like walls.
 				//Effectively pauses motion if a series of objects are running another one into a wall.
-				if(physicsCollidable.justCollidedStatically) {
+				if(physicsCollidable.isJustCollidedStatically()) {
 					this.setPosition(physicsCollidable.getBoundaryX() - this.getBoundaryWidth() - 1, this.getBoundaryY());
 					this.getTotalVelocity().setX(0);
 					continue;
 				}//end if
 				
 				physicsCollidable.setPosition(this.getBoundaryX() + this.getBoundaryWidth() + 1, physicsCollidable.getBoundaryY());
+				if(broadphase != null) broadphase.update(physicsCollidable);
 				
 				//If physicsCollidable has a lesser momentum than this PhysicsSprite velocity won't be updated as physicsCollidable can't move this.
 				if(physicsCollidable.getMomentum() < this.getMomentum()) continue;
 				
-				this.momentum = physicsCollidable.momentum; //Updates this PhysicsSprite's momentum to match the physicsCollidable
+				this.setMomentum(physicsCollidable.getMomentum()); //Updates this PhysicsSprite's momentum to match the physicsCollidable
 				
 				//If an object is running into this from the right, adds velocity to this so it will be moved
 				if(physicsCollidable.getTotalVelocity().getX() < 0) {
@@ -220,7 +276,7 @@ public class PhysicsSprite extends Sprite {
 			}//end if
 			
 
-		}//end while
+		}//end for
 		
 		this.addDecayingVelocity(collisionVelocity, 0.5);
 		
@@ -235,72 +291,179 @@ public class PhysicsSprite extends Sprite {
 	 * */
 	//Handles collisions for non-physics based sprites that still move or are solid
 	//IMPORTANT: this moves THIS object to the border of the SPRITE and is done with position not VELOCITY or DECAYING VELOCITY
-	private Vector staticCollision(Sprite collidable) {
-		Vector collisionVelocity = new Vector(0, 0);
-		
+	private void staticCollision(Sprite collidable) {
 		//Checks if collidable is being hit from the Right
 		if(collidable.getBoundary().rightHit(this.getBoundary())) {
 			//Ensures that velocity isn't added that pushes sprite into the collidable
 			this.setPosition(collidable.getBoundaryX() + collidable.getBoundaryWidth() + 1, this.getBoundaryY());
-			this.justCollidedStatically = true;
+			this.setJustCollidedStatically(true);
 		}//end if
 		
 		//Checks if collidable is being hit from the Left
 		else if(collidable.getBoundary().leftHit(this.getBoundary())) {
 			//Ensures that velocity isn't added that pushes sprite into the collidable
 			this.setPosition(collidable.getBoundaryX() - this.getBoundaryWidth() - 1, this.getBoundaryY());
-			this.justCollidedStatically = true;
+			this.setJustCollidedStatically(true);
 		}//end if
 		
 		//Checks if collidable is being hit from Below
 		else if(this.getBoundary().below(collidable.getBoundary())) {
 			this.setPosition(this.getBoundaryX(), collidable.getBoundaryY() + collidable.getBoundaryHeight());
 			if(this.getVelocityY() < 0) this.setVelocityY(0);
-			this.justCollidedStatically = true;
+			this.setJustCollidedStatically(true);
 		}//end if
-		
-		return collisionVelocity;	
 	}//end staticVollision
 	
-	//Generic getters and setters
+	/** Counts how long this PhysicsSprite has been still, and puts it to sleep once it has been still for SLEEP_TICKS ticks.
+	 *  Still means resting on something without moving or being moved, so updating it would only work out the same thing again.
+	 * @return true if it fell asleep on this tick
+	 * */
+	//PRE: Called once after each update.
+	//POST: A body that fell asleep has no velocity left and remembers where its support was, so it can be woken if that moves.
+	public boolean settle() {
+		boolean still = support != null && this.isOnSurface()
+				&& this.getTotalVelocity().getMagnitude() <= STILL
+				&& (this.getTempVelocity() == null || this.getTempVelocity().getMagnitude() <= STILL)
+				&& Math.abs(this.getBoundaryX() - stillX) <= STILL && Math.abs(this.getBoundaryY() - stillY) <= STILL;
+		
+		if(!still) {
+			stillTicks = 0;
+			stillX = this.getBoundaryX();
+			stillY = this.getBoundaryY();
+			return false;
+		}//end if
+		
+		stillTicks++;
+		if(!this.canSleep() || stillTicks < SLEEP_TICKS) return false;
+		
+		this.setAsleep(true);
+		this.getVelocity().set(0, 0);
+		this.getTotalVelocity().set(0, 0);
+		if(this.getTempVelocity() != null) this.getTempVelocity().set(0, 0);
+		supportX = support.getBoundaryX();
+		supportY = support.getBoundaryY();
+		return true;
+	}//end settle
+	
+	/** Wakes this PhysicsSprite up so it is updated again
+	 * @return true if it was asleep
+	 * */
+	public boolean wake() {
+		if(!this.isAsleep()) return false;
+		this.setAsleep(false);
+		stillTicks = 0;
+		return true;
+	}//end wake
+	
+	/** Checks if what this PhysicsSprite fell asleep on has moved since, meaning it may no longer be held up */
+	public boolean isSupportMoved() {
+		return support == null || support.getBoundaryX() != supportX || support.getBoundaryY() != supportY;
+	}//end isSupportMoved
+	
+	/** Whether this PhysicsSprite may fall asleep, bodies that move on their own (e.g the player and enemies) never do */
+	protected boolean canSleep() {
+		return true;
+	}
+	
+	/** Moves this PhysicsSprite's mass, momentum, gravity, and flags into an EntityStore alongside its position and velocities */
+	@Override
+	public void attach(EntityStore store) {
+		if(this.getStore() != null) return;
+		
+		super.attach(store);
+		int id = this.getId();
+		store.mass[id] = mass;
+		store.momentum[id] = momentum;
+		store.gravity[id] = gravity;
+		store.setFlag(id, EntityStore.ON_SURFACE, onSurface);
+		store.setFlag(id, EntityStore.JUST_COLLIDED, justCollidedStatically);
+		store.setFlag(id, EntityStore.ASLEEP, asleep);
+	}//end attach
+	
+	//Generic getters and setters, reading from the store once this PhysicsSprite is in one
 	public boolean isOnSurface() {
+		if(this.getStore() != null) return this.getStore().isFlagged(this.getId(), EntityStore.ON_SURFACE);
 		return onSurface;
 	}
 	
 	public double getGravity() {
+		if(this.getStore() != null) return this.getStore().gravity[this.getId()];
 		return gravity;
 	}
 
 	public void setGravity(double gravity) {
-		this.gravity = gravity;
+		if(this.getStore() != null) this.getStore().gravity[this.getId()] = gravity;
+		else this.gravity = gravity;
 	}
 
 	public void setOnSurface(boolean onSurface) {
-		this.onSurface = onSurface;
+		if(this.getStore() != null) this.getStore().setFlag(this.getId(), EntityStore.ON_SURFACE, onSurface);
+		else this.onSurface = onSurface;
 	}
 
 	public double getMass() {
+		if(this.getStore() != null) return this.getStore().mass[this.getId()];
 		return mass;
 	}
 
 	public void setMass(double mass) {
-		this.mass = mass;
+		if(this.getStore() != null) this.getStore().mass[this.getId()] = mass;
+		else this.mass = mass;
 	}
 
 	public double getMomentum() {
+		if(this.getStore() != null) return this.getStore().momentum[this.getId()];
 		return momentum;
 	}
 
 	public void setMomentum(double momentum) {
-		this.momentum = momentum;
+		if(this.getStore() != null) this.getStore().momentum[this.getId()] = momentum;
+		else this.momentum = momentum;
 	}
 
 	public boolean isJustCollidedStatically() {
+		if(this.getStore() != null) return this.getStore().isFlagged(this.getId(), EntityStore.JUST_COLLIDED);
 		return justCollidedStatically;
 	}
 
 	public void setJustCollidedStatically(boolean justCollidedStatically) {
-		this.justCollidedStatically = justCollidedStatically;
+		if(this.getStore() != null) this.getStore().setFlag(this.getId(), EntityStore.JUST_COLLIDED, justCollidedStatically);
+		else this.justCollidedStatically = justCollidedStatically;
+	}
+	
+	public boolean isAsleep() {
+		if(this.getStore() != null) return this.getStore().isFlagged(this.getId(), EntityStore.ASLEEP);
+		return asleep;
+	}
+	
+	private void setAsleep(boolean asleep) {
+		if(this.getStore() != null) this.getStore().setFlag(this.getId(), EntityStore.ASLEEP, asleep);
+		else this.asleep = asleep;
+	}
+	
+	//Returns what this PhysicsSprite last landed on, null if it is falling
+	public Sprite getSupport() {
+		return support;
+	}
+	
+	public int getPairsTested() {
+		return pairsTested;
+	}
+
+	public int getCollisionPairs() {
+		return collisionPairs;
+	}
+	
+	public int getBodiesWoken() {
+		return bodiesWoken;
+	}
+
+	public Broadphase getBroadphase() {
+		return broadphase;
+	}
+	
+	public void setBroadphase(Broadphase broadphase) {
+		this.broadphase = broadphase;
 	}
 	
 }//end PhysicsSprite
@@ -0,0 +1,67 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** PhysicsStepEvent is a Java Flight Recorder event covering one World.step, with how much collision work the tick took.
+ *  One event is recorded per tick rather than per sprite, so it stays cheap enough to leave on.
+ *  */
+@Name("stretchgame.PhysicsStep")
+@Label("Physics Step")
+@Category({"Stretch Game", "Physics"})
+@Description("One fixed tick of a World")
+@StackTrace(false)
+public class PhysicsStepEvent extends jdk.jfr.Event {
+
+	@Label("Tick")
+	long tick;
+
+	@Label("Simulated Sprites")
+	int simulated;
+
+	@Label("Physics Sprites")
+	@Description("PhysicsSprites updated this tick, including the player and enemies")
+	int physicsSprites;
+
+	@Label("Enemies")
+	int enemies;
+
+	@Label("Pairs Tested")
+	@Description("Solid sprite pairs the broadphase handed to the overlap test")
+	int pairsTested;
+
+	@Label("Collision Pairs")
+	@Description("Pairs that actually overlapped and were pushed apart")
+	int collisionPairs;
+
+	@Label("Enemy Collision Pairs")
+	@Description("The part of the collision pairs that came from enemy updates")
+	int enemyCollisionPairs;
+
+	@Label("Asleep")
+	@Description("PhysicsSprites skipped this tick because they were asleep")
+	int asleep;
+
+	@Label("Fell Asleep")
+	@Description("PhysicsSprites put to sleep this tick after staying still")
+	int fellAsleep;
+
+	@Label("Woke Up")
+	@Description("Sleeping PhysicsSprites woken this tick by a bump or their support moving")
+	int wokeUp;
+
+	@Label("Islands")
+	@Description("Groups of bodies that couldn't touch each other this tick, 0 unless the World is stepped in parallel")
+	int islands;
+
+	@Label("Largest Island")
+	int largestIsland;
+
+	@Label("Parallel Speedup")
+	@Description("The time every island took added up, over the time they took side by side")
+	double parallelSpeedup;
+
+}//end PhysicsStepEvent
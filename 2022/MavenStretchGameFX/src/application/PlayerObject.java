@@ -1,9 +1,9 @@
 package application;
 
-import java.net.URISyntaxException;
 import java.util.ArrayList;
-import java.util.Iterator;
 
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.media.AudioClip;
 
 /** PlayerObject is an instance of PhysicsSprite that represents the player character */
@@ -20,6 +20,19 @@ public class PlayerObject extends PhysicsSprite {
 	private Rectangle normalSlimeHitBox = new Rectangle(0, 0, 225, 169);//A rectangle the size of the normal slime Sprite's hitbox
 
 	private int bounces = 0; //The number of times the player has bounced
+	
+	//The picture for each size of slime (small, normal, large) facing left then right
+	static final String[][] SIZE_IMAGE_PATHS = {
+			{"Pictures/smolSlime.png", "Pictures/smolSlimeRight.png"},
+			{"Pictures/Slime.png", "Pictures/SlimeRight.png"},
+			{"Pictures/BigSlime.png", "Pictures/BigSlimeRight.png"}};
+	//The hitbox width and height for each size of slime, MUST match the dimensions of the pictures above
+	private static final double[][] SIZE_BOUNDS = {{99, 74}, {222, 169}, {493, 376}};
+	
+	//SIZE_IMAGE_PATHS looked up through the ImageCache before any player is drawn, so changing size or facing never loads a file
+	private static volatile Image[][] sizeImages;
+	
+	private boolean facingRight = false; //Which way the player is facing, the player starts facing left
 
 	/** Constructs a PlayerObject
 	 * @param mass A double that determines what the player can and can't move
@@ -29,28 +42,37 @@ public class PlayerObject extends PhysicsSprite {
 	public PlayerObject(double mass, double gravity, double health) {
 		super(mass, gravity);
 		this.health = health;
-		
-		try {
-			slimeJump = new AudioClip(getClass().getResource("/Music/slimejump-6913.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}
-		
-		try {
-			slimeHurt = new AudioClip(getClass().getResource("/Music/slime-squish-14539.mp3").toURI().toString());
-		} catch (URISyntaxException e) {
-			e.printStackTrace();
-		}	
+		this.applySize(); //Sizes the hitbox so the player can be simulated without ever loading a picture
 	}//end PlayerObject constructor
 	
+	/** loadImages decodes the picture for every size and facing of the player, it is done the first time a player is drawn if not before */
+	public static void loadImages() {
+		if(sizeImages != null) return;
+		
+		Image[][] images = new Image[SIZE_IMAGE_PATHS.length][2];
+		for(int i = 0; i < SIZE_IMAGE_PATHS.length; i++) {
+			images[i][0] = ImageCache.get(SIZE_IMAGE_PATHS[i][0]);
+			images[i][1] = ImageCache.get(SIZE_IMAGE_PATHS[i][1]);
+		}//end for
+		sizeImages = images;
+	}//end loadImages
+	
+	/** loadSounds loads the slimeJump and slimeHurt AudioClips shared by every PlayerObject, without it the player is silent */
+	public static void loadSounds() {
+		if(slimeJump != null) return;
+		slimeJump = SoundCache.get(AssetManifest.PLAYER_JUMP);
+		slimeHurt = SoundCache.get(AssetManifest.PLAYER_HURT);
+	}//end loadSounds
+	
 	public void playJumpSound() {
-		slimeJump.play();
+		if(slimeJump != null) slimeJump.play();
 	}//end playJumpSound
 	
 	/** changeVolume updates the sound of the slimeJump and slimeHurt AudioClips
 	 * @param volume The number that the volume is to be updated by
 	 * */
 	public static void changeVolume(double volume) {
+		if(slimeJump == null) return;
 		slimeJump.setVolume(volume * 0.006);
 		slimeHurt.setVolume(volume * 0.0015);
 	}//end changeVolume
@@ -79,7 +101,7 @@ public class PlayerObject extends PhysicsSprite {
 		this.setVelocityY(-this.getVelocityY()/2);
 		this.setPositionY(surface.getBoundaryY() - this.getBoundaryHeight());
 		bounces++;
-		slimeJump.play();
+		this.playJumpSound();
 	}//end landOn
 	
 	/** Updates the player to check its collisions and also if it needs to take damage from a level hazard
@@ -93,29 +115,11 @@ public class PlayerObject extends PhysicsSprite {
 		//TODO: Reset static collision for the player
 		this.setMomentum(this.getMass());
 		
-		//Checks what direction the player should be facing if it is normal sized
-		if(this.getMass() == 1) {
-			if(this.getVelocityX() > 0)
-				this.setImage("Pictures/SlimeRight.png");
-			else if (this.getVelocityX() < 0)
-				this.setImage("Pictures/Slime.png");
-		}
-		
-		//Checks what direction the player should be facing if it is large.
-		else if(this.getMass() == 2) {
-			if(this.getVelocityX() > 0)
-				this.setImage("Pictures/BigSlimeRight.png");
-			else if (this.getVelocityX() < 0)
-				this.setImage("Pictures/BigSlime.png");
-		}
-		
-		//Checks what direction the player should be facing if it is small.
-		else if(this.getMass() == 0.5) {
-			if(this.getVelocityX() > 0)
-				this.setImage("Pictures/smolSlimeRight.png");
-			else if (this.getVelocityX() < 0)
-				this.setImage("Pictures/smolSlime.png");
-		}
+		//Checks what direction the player should be facing, the matching picture is picked when it is drawn
+		if(this.getVelocityX() > 0)
+			facingRight = true;
+		else if (this.getVelocityX() < 0)
+			facingRight = false;
 		
 		this.update(surfaces); //Checks collisions and falling
 		
@@ -123,13 +127,9 @@ public class PlayerObject extends PhysicsSprite {
 		this.bigSlimeHitBox.setPosition(this.getBoundaryX() + this.getBoundaryWidth()/2 - 250, this.getBoundaryY() + this.getBoundaryHeight() - 376 - 1);
 		this.normalSlimeHitBox.setPosition(this.getBoundaryX() + this.getBoundaryWidth()/2 - 112.5, this.getBoundaryY() + this.getBoundaryHeight() - 169 - 1);
 		
-		Iterator<Sprite> it = enemies.iterator();
-		Sprite pointer;
-		
 		//Checks if the PlayerObject has collided with any enemies, taking damage if it has
-		while(it.hasNext()) {
-			pointer = it.next();
-			if(this.hit(pointer)) break;
+		for(int i = 0; i < enemies.size(); i++) {
+			if(this.hit(enemies.get(i))) break;
 		}
 		
 		//Kills the player if they have been falling for too long, in the case of jumping of the map
@@ -144,7 +144,7 @@ public class PlayerObject extends PhysicsSprite {
 		//Checks if the enemy and PlayerObject are overlapping
 		if (this.overlaps(enemy)) {
 			health -= 10;
-			slimeHurt.play();
+			if(slimeHurt != null) slimeHurt.play();
 			this.bump(enemy);
 			return true;
 		}//end if
@@ -158,7 +158,7 @@ public class PlayerObject extends PhysicsSprite {
 	 * */
 	public void takeDamage(Enemy enemy) {
 		health -= 10;
-		slimeHurt.play();
+		if(slimeHurt != null) slimeHurt.play();
 		this.bump(enemy);
 	}//end takeDamage
 	
@@ -170,8 +170,6 @@ public class PlayerObject extends PhysicsSprite {
 	//POST: The player is "bumped" out of Enemie's hitbox
 	public void bump(Sprite enemy) {
 
-		Vector bumpVelocity = new Vector(0, 0);
-		
 		//Bumps player below the enemy if the enemy is above, otherwise bumps player upwards
 		if(this.getBoundary().below(enemy.getBoundary()))
 			this.setVelocityY(3);
@@ -179,12 +177,11 @@ public class PlayerObject extends PhysicsSprite {
 			this.setVelocityY(-10);
 		
 		//Bumps player to the left if enemy is to the rightm otherwise bumps player to the right
+		//Added as plain components rather than a new Vector so a bump never allocates
 		if(this.getBoundary().toLeft(enemy.getBoundary()))
-			bumpVelocity.setX(-3);
+			this.addDecayingVelocity(-3, 0, 0.3);
 		else
-			bumpVelocity.setX(3);
-			
-		this.addDecayingVelocity(bumpVelocity, 0.3);
+			this.addDecayingVelocity(3, 0, 0.3);
 	}//end bump
 	
 	
@@ -194,14 +191,19 @@ public class PlayerObject extends PhysicsSprite {
 	//PRE: A list of all the surfaces Sprite can collide with
 	//POST: The player is transformed into its large size
 	public void grow(ArrayList<Sprite> surfaces) {
-		for(Sprite other : surfaces)
+		//Indexed rather than iterated so a size change never allocates
+		ArrayList<Sprite> nearby = this.nearby(surfaces, bigSlimeHitBox);
+		for(int i = 0; i < nearby.size(); i++) {
+			Sprite other = nearby.get(i);
 			if(bigSlimeHitBox.overlaps(other.getBoundary()) && other.isSolid()) {
 				if(other == this) continue;
 				return;
 			}
+		}//end for
 		this.setPosition(this.getBoundaryX() + this.getBoundaryWidth()/2 - 250, this.getBoundaryY() + this.getBoundaryHeight() - 376); //Centers slime where it previously was
-		this.setImage("Pictures/BigSlime.png");
+		facingRight = false;
 		this.setMass(2);
+		this.applySize();
 	}//end grow
 	
 	
@@ -211,8 +213,9 @@ public class PlayerObject extends PhysicsSprite {
 	//POST: The player is transformed into its small size
 	public void shrink() {
 		this.setPosition(this.getBoundaryX() + this.getBoundaryWidth()/2 - 50, this.getBoundaryY() + this.getBoundaryHeight() - 75);
-		this.setImage("Pictures/smolSlime.png");
+		facingRight = false;
 		this.setMass(0.5);
+		this.applySize();
 	}//end shrink
 	
 	
@@ -223,20 +226,55 @@ public class PlayerObject extends PhysicsSprite {
 	//POST: The player is returned to its base size
 	public void returnToBaseSize(ArrayList<Sprite> surfaces) {
 		
-		if(this.getMass() == 0.5)
-		for(Sprite other : surfaces)
-			if(normalSlimeHitBox.overlaps(other.getBoundary()) && other.isSolid()) {
-				if(other == this) continue;
-				return;
-			}
+		if(this.getMass() == 0.5) {
+			ArrayList<Sprite> nearby = this.nearby(surfaces, normalSlimeHitBox);
+			for(int i = 0; i < nearby.size(); i++) {
+				Sprite other = nearby.get(i);
+				if(normalSlimeHitBox.overlaps(other.getBoundary()) && other.isSolid()) {
+					if(other == this) continue;
+					return;
+				}
+			}//end for
+		}//end if
 		
 		this.setPosition(this.getBoundaryX() + this.getBoundaryWidth()/2 - 112.5, this.getBoundaryY() + this.getBoundaryHeight() - 169);
-		this.setImage("Pictures/Slime.png");
+		facingRight = false;
 		this.setMass(1);
+		this.applySize();
 	}//end returnToBaseSize
 	
 	
+	//Index into SIZE_IMAGES and SIZE_BOUNDS for the player's current mass
+	private int sizeIndex() {
+		if(this.getMass() == 0.5) return 0;
+		if(this.getMass() == 2) return 2;
+		return 1;
+	}//end sizeIndex
+	
+	//Resizes the hitbox to match the player's current size
+	private void applySize() {
+		this.setBoundarySize(SIZE_BOUNDS[this.sizeIndex()][0], SIZE_BOUNDS[this.sizeIndex()][1]);
+	}//end applySize
+	
+	/** Draws the player with the picture matching its size and facing
+	 * @param context The GraphicsContext being drawn to
+	 * @param alpha How far between the previous and current tick the player is drawn
+	 * */
+	@Override
+	public void render(GraphicsContext context, double alpha) {
+		loadImages();
+		this.setImage(sizeImages[this.sizeIndex()][facingRight ? 1 : 0]);
+		super.render(context, alpha);
+	}//end render
+	
+	
 
+	//The player moves whenever a key is pressed, so it is never put to sleep
+	@Override
+	protected boolean canSleep() {
+		return false;
+	}
+	
 	public boolean isBouncing() {
 		return bounces > 0;
 	}
@@ -0,0 +1,38 @@
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/** ReplayRunner plays input recordings back headlessly as fast as it can, to reproduce a bug or time a real play of a level.
+ *  Usage: java -cp MavenStretchGameFX.jar application.ReplayRunner recording [repeats]
+ *  The recording is replayed repeats times (1 by default), each on a fresh World, and the outcome and time of each is printed.
+ *  */
+public class ReplayRunner {
+
+	//The name of each World status constant
+	private static final String[] STATUS_NAMES = {"Still running", "Player died", "Level beaten"};
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1 || args.length > 2) {
+			System.err.println("Usage: ReplayRunner recording [repeats]");
+			System.exit(1);
+		}
+
+		InputRecording recording = InputRecording.read(new File(args[0]));
+		int repeats = args.length == 2 ? Integer.parseInt(args[1]) : 1;
+		System.out.println("Level " + recording.getLevelNum() + ", " + recording.getTicks() + " ticks in " + recording.getRunCount() + " runs");
+
+		for(int i = 0; i < repeats; i++) {
+			World world = recording.createWorld();
+			long start = System.nanoTime();
+			int status = recording.replay(world);
+			long nanos = System.nanoTime() - start;
+
+			System.out.println(String.format(Locale.ROOT, "%s after %d ticks, score %.0f, health %.0f, player at (%.2f, %.2f) in %.1f ms (%.2f us per tick)",
+					STATUS_NAMES[status], world.getTicks(), world.getLevelScore(), world.getPlayer().getHealth(),
+					world.getPlayer().getBoundaryX(), world.getPlayer().getBoundaryY(), nanos / 1e6, nanos / 1e3 / Math.max(1, world.getTicks())));
+		}//end for
+	}//end main
+
+}//end ReplayRunner
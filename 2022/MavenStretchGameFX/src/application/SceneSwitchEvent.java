@@ -0,0 +1,22 @@
+package application;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** SceneSwitchEvent is a Java Flight Recorder event covering the window switching over to a new Level */
+@Name("stretchgame.SceneSwitch")
+@Label("Scene Switch")
+@Category({"Stretch Game", "Levels"})
+public class SceneSwitchEvent extends jdk.jfr.Event {
+
+	@Label("From Level")
+	int fromLevel; //The level that was played before, 0 if this is the first
+
+	@Label("To Level")
+	int toLevel;
+
+	@Label("Restart")
+	boolean restart; //Whether the same level was started over
+
+}//end SceneSwitchEvent
@@ -22,6 +22,10 @@ public class ScrollCam {
 	//DeltaPos is constructed with default 0,0 since it can be assumed there is no change in position until an update is called.
 	private Vector deltaPos = new Vector(0, 0);
 	
+	//The total translation applied to the GraphicsContext so far, used to convert between canvas and world coordinates
+	private double translateX;
+	private double translateY;
+	
 	//Constructs a camera centered on a Sprite target offset to be near the middle of a Canvas c
 	public ScrollCam(Sprite target, Canvas c) {
 		this.target = target;
@@ -35,7 +39,7 @@ public class ScrollCam {
 
 		
 		//Initial GraphicsContext Translate to center sprite
-		c.getGraphicsContext2D().translate(-target.getPosition().getX() + offsetX - target.getImage().getWidth()/2, -target.getPosition().getY() + offsetY);
+		this.translate(c.getGraphicsContext2D(), -target.getPosition().getX() + offsetX - target.getImage().getWidth()/2, -target.getPosition().getY() + offsetY);
 		
 		this.currPos = new Vector(target.getPosition().getX(), target.getPosition().getY());
 		this.lastPos = new Vector(currPos);
@@ -46,7 +50,28 @@ public class ScrollCam {
 	//Precondition: g is a viable GraphicsContext not null.
 	//Postcondition: g is translated to the opposite direction of deltaPos.
 	public void deltaTranslate(GraphicsContext g) {
-		g.translate(-getDeltaX(), -getDeltaY());
+		this.translate(g, -getDeltaX(), -getDeltaY());
+	}
+	
+	//Translates g while keeping track of the total translation
+	private void translate(GraphicsContext g, double x, double y) {
+		g.translate(x, y);
+		translateX += x;
+		translateY += y;
+	}
+	
+	//Precondition: g belongs to the canvas that changed size.
+	//Postcondition: g is translated so the target stays in the middle of the resized canvas.
+	public void resize(GraphicsContext g, double deltaWidth, double deltaHeight) {
+		this.translate(g, deltaWidth/2, deltaHeight/2);
+	}
+	
+	//Precondition: out is a non-null Rectangle, the area given is in canvas coordinates (before any translation).
+	//Postcondition: out is set to the same area in world coordinates, plus margin on every side.
+	public void getViewport(double canvasX, double canvasY, double width, double height, double margin, Rectangle out) {
+		out.setPosition(canvasX - translateX - margin, canvasY - translateY - margin);
+		out.setWidth(width + margin*2);
+		out.setHeight(height + margin*2);
 	}
 	
 	//Precondition: g is a viable GraphicsContext. currPos and lastPos aren't null.
@@ -61,6 +86,18 @@ public class ScrollCam {
 	}
 	
 	
+	//Precondition: g is a viable GraphicsContext. currPos and lastPos aren't null, alpha is between 0 and 1.
+	//Postcondition: g is translated the opposite direction of the change of target's interpolated position.
+	public void update(GraphicsContext g, double alpha) {
+		if(currPos == null) return;
+		
+		currPos.set(target.getInterpolatedX(alpha), target.getInterpolatedY(alpha));
+		deltaPos.set(currPos.getX() - lastPos.getX(), currPos.getY() - lastPos.getY());
+		this.deltaTranslate(g);
+		lastPos.set(currPos);
+	}
+	
+	
 	//returns x and y of Delta x directly, QOL methods not entirely necessary
 	public double getDeltaX() {
 		return deltaPos.getX();
@@ -94,7 +131,7 @@ public class ScrollCam {
 		double deltaHeight = this.target.getImage().getHeight() - oldImageHeight;
 		oldImageWidth = this.target.getImage().getWidth();
 		oldImageHeight = this.target.getImage().getHeight();
-		g.translate(-deltaWidth/2, -deltaHeight);
+		this.translate(g, -deltaWidth/2, -deltaHeight);
 		
 	}
 }
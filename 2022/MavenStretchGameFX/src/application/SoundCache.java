@@ -0,0 +1,49 @@
+package application;
+
+import java.net.URISyntaxException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javafx.scene.media.AudioClip;
+
+/** SoundCache is a registry of every sound effect the game has loaded, keyed by path, so each sound file is only decoded once */
+public class SoundCache {
+
+	//Every sound decoded so far, keyed by its path. It is concurrent so sounds can be decoded on a background thread
+	private static ConcurrentHashMap<String, AudioClip> clips = new ConcurrentHashMap<String, AudioClip>();
+
+	//SoundCache is only used statically
+	private SoundCache() {}
+
+	/** Gets the sound effect at a path, decoding it only the first time it is asked for
+	 * @param path The path to the sound inside the jar (e.g "/Music/slimejump-6913.mp3")
+	 * */
+	//PRE: Called from any thread once the JavaFX toolkit has started.
+	//POST: Returns the same AudioClip for every call with the same path, null if it couldn't be found.
+	public static AudioClip get(String path) {
+		AudioClip clip = clips.get(path);
+		if(clip == null) clip = clips.computeIfAbsent(path, SoundCache::decode);
+		return clip;
+	}//end get
+
+	//Decodes the sound at a path, stack traced and null if it can't be found
+	private static AudioClip decode(String path) {
+		try {
+			return new AudioClip(SoundCache.class.getResource(path).toURI().toString());
+		} catch (URISyntaxException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}//end decode
+
+	/** Checks if a sound has already been decoded
+	 * @param path The path to the sound
+	 * */
+	public static boolean contains(String path) {
+		return clips.containsKey(path);
+	}
+
+	public static int size() {
+		return clips.size();
+	}
+
+}//end SoundCache
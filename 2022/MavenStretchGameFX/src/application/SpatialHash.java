@@ -0,0 +1,270 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/** SpatialHash is a uniform grid broadphase that buckets Sprites by the cells their boundary covers,
+ *  so collision checks only have to look at the Sprites that are actually near each other.
+ * */
+public class SpatialHash implements Broadphase {
+
+	private final double cellSize; //The width and height of a single cell in the grid
+
+	private CellMap cells = new CellMap(); //Every occupied cell and the entries inside it
+	private ArrayList<ArrayList<Entry>> freeCells = new ArrayList<ArrayList<Entry>>(); //Lists of cells that emptied out, reused for the next new cell
+	private IdentityHashMap<Sprite, Entry> entries = new IdentityHashMap<Sprite, Entry>(); //Every Sprite in the grid and its entry
+	private ArrayList<Entry> dynamicEntries = new ArrayList<Entry>(); //Entries for PhysicsSprites, the only ones re-bucketed each tick
+
+	private int nextOrder = 0; //Insertion counter, query results are sorted by it so they come back in the order Sprites were added
+	private int queryStamp = 0; //Incremented every query so an entry in several cells is only returned once
+	private ArrayList<Entry> found = new ArrayList<Entry>(); //Scratch list reused by every query to sort its results
+	private ArrayList<Entry> freeEntries = new ArrayList<Entry>(); //Entries of removed Sprites, reused so streaming Sprites in and out never allocates
+
+	//Holds a Sprite alongside the range of cells it was last bucketed into
+	private static class Entry {
+		private Sprite sprite;
+		private int order;
+		private int minCellX, minCellY, maxCellX, maxCellY;
+		private int stamp = -1;
+	}//end Entry
+	
+	//An open addressing hash map from packed cell coordinates to the entries in that cell.
+	//Used over a HashMap<Long, ...> so looking up a cell never boxes its key.
+	private static class CellMap {
+		private long[] keys = new long[64];
+		private Object[] cells = new Object[64];
+		private int size = 0;
+		
+		@SuppressWarnings("unchecked")
+		private ArrayList<Entry> get(long key) {
+			int mask = keys.length - 1;
+			for(int i = hash(key) & mask; cells[i] != null; i = (i + 1) & mask) {
+				if(keys[i] == key) return (ArrayList<Entry>)cells[i];
+			}
+			return null;
+		}//end get
+		
+		private void put(long key, ArrayList<Entry> cell) {
+			//Doubles in size at half full so probes stay short
+			if((size + 1) * 2 > keys.length) this.grow();
+			
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while(cells[i] != null && keys[i] != key) i = (i + 1) & mask;
+			if(cells[i] == null) size++;
+			keys[i] = key;
+			cells[i] = cell;
+		}//end put
+		
+		//Removes a key by shifting the rest of its probe run back, so no "deleted" markers are needed
+		private void remove(long key) {
+			int mask = keys.length - 1;
+			int i = hash(key) & mask;
+			while(cells[i] != null && keys[i] != key) i = (i + 1) & mask;
+			if(cells[i] == null) return;
+			
+			cells[i] = null;
+			size--;
+			
+			for(int j = (i + 1) & mask; cells[j] != null; j = (j + 1) & mask) {
+				int home = hash(keys[j]) & mask;
+				//Moves j into the gap at i if its home slot isn't between the gap and j
+				if(((j - home) & mask) >= ((j - i) & mask)) {
+					keys[i] = keys[j];
+					cells[i] = cells[j];
+					cells[j] = null;
+					i = j;
+				}//end if
+			}//end for
+		}//end remove
+		
+		@SuppressWarnings("unchecked")
+		private void grow() {
+			long[] oldKeys = keys;
+			Object[] oldCells = cells;
+			keys = new long[oldKeys.length * 2];
+			cells = new Object[oldCells.length * 2];
+			size = 0;
+			for(int i = 0; i < oldKeys.length; i++)
+				if(oldCells[i] != null) this.put(oldKeys[i], (ArrayList<Entry>)oldCells[i]);
+		}//end grow
+		
+		private static int hash(long key) {
+			long h = key * 0x9E3779B97F4A7C15L;
+			return (int)(h ^ (h >>> 32));
+		}
+	}//end CellMap
+
+	/** Constructs an empty SpatialHash
+	 * @param cellSize The width and height of each cell, ideally around the size of the average Sprite
+	 * */
+	public SpatialHash(double cellSize) {
+		if(cellSize <= 0) throw new IllegalArgumentException("The cell size " + cellSize + " must be positive!");
+		this.cellSize = cellSize;
+	}//end SpatialHash constructor
+
+	/** Adds a Sprite into the grid, PhysicsSprites are tracked so refresh() can move them as they move
+	 * @param sprite The Sprite being added
+	 * */
+	//PRE: Sprites are inserted in the same order they sit in the list they come from (e.g Level's surfaces).
+	//POST: The sprite is bucketed into every cell its boundary covers.
+	public void insert(Sprite sprite) {
+		this.insert(sprite, nextOrder);
+	}//end insert
+
+	/** Adds a Sprite into the grid at a given place in the query order, for Sprites re-added after being removed
+	 * @param sprite The Sprite being added
+	 * @param order Where the sprite sorts in query results, lower first (e.g its index in the full list it comes from)
+	 * */
+	//POST: The sprite is bucketed into every cell its boundary covers and is returned by queries in order of its order.
+	public void insert(Sprite sprite, int order) {
+		if(entries.containsKey(sprite)) return;
+
+		Entry entry = freeEntries.isEmpty() ? new Entry() : freeEntries.remove(freeEntries.size() - 1);
+		entry.sprite = sprite;
+		entry.order = order;
+		nextOrder = Math.max(nextOrder, order + 1);
+		entries.put(sprite, entry);
+		if(sprite instanceof PhysicsSprite) dynamicEntries.add(entry);
+
+		this.bucket(entry);
+	}//end insert
+
+	/** Removes a Sprite from the grid
+	 * @param sprite The Sprite being removed
+	 * */
+	public void remove(Sprite sprite) {
+		Entry entry = entries.remove(sprite);
+		if(entry == null) return;
+
+		this.unbucket(entry);
+		dynamicEntries.remove(entry);
+		entry.sprite = null;
+		freeEntries.add(entry);
+	}//end remove
+
+	/** Re-buckets a single Sprite if it has moved into a different range of cells
+	 * @param sprite The Sprite that may have moved
+	 * */
+	public void update(Sprite sprite) {
+		Entry entry = entries.get(sprite);
+		if(entry != null) this.rebucket(entry);
+	}//end update
+
+	/** Re-buckets every PhysicsSprite in the grid, should be called once per tick before any updates */
+	public void refresh() {
+		for(int i = 0; i < dynamicEntries.size(); i++)
+			this.rebucket(dynamicEntries.get(i));
+	}//end refresh
+
+	/** Finds every Sprite that shares a cell with an area
+	 * @param area The area being searched around
+	 * @param out The list results are written into, it is cleared first
+	 * */
+	//PRE: out is a non-null list that isn't being iterated over, every Sprite that moved has been passed to update().
+	//POST: out holds every candidate near area in the order they were inserted, a superset of what actually overlaps area.
+	public void query(Rectangle area, ArrayList<Sprite> out) {
+		out.clear();
+		found.clear();
+		queryStamp++;
+
+		int minX = this.cellOf(area.getX());
+		int minY = this.cellOf(area.getY());
+		int maxX = this.cellOf(area.getX() + area.getWidth());
+		int maxY = this.cellOf(area.getY() + area.getHeight());
+
+		for(int x = minX; x <= maxX; x++) {
+			for(int y = minY; y <= maxY; y++) {
+				ArrayList<Entry> cell = cells.get(key(x, y));
+				if(cell == null) continue;
+
+				for(int i = 0; i < cell.size(); i++) {
+					Entry entry = cell.get(i);
+					if(entry.stamp == queryStamp) continue;
+					entry.stamp = queryStamp;
+					this.insertSorted(entry);
+				}//end for
+			}//end for
+		}//end for
+
+		for(int i = 0; i < found.size(); i++)
+			out.add(found.get(i).sprite);
+	}//end query
+
+	//Insertion sort on order keeps results matching a full scan of the original list, lists are small so this is cheap
+	private void insertSorted(Entry entry) {
+		int i = found.size();
+		found.add(entry);
+		while(i > 0 && found.get(i - 1).order > entry.order) {
+			found.set(i, found.get(i - 1));
+			i--;
+		}
+		found.set(i, entry);
+	}//end insertSorted
+
+	//Moves an entry to its new cells only when the range of cells it covers has changed
+	private void rebucket(Entry entry) {
+		Rectangle bounds = entry.sprite.getBoundary();
+		if(this.cellOf(bounds.getX()) == entry.minCellX && this.cellOf(bounds.getY()) == entry.minCellY &&
+		   this.cellOf(bounds.getX() + bounds.getWidth()) == entry.maxCellX && this.cellOf(bounds.getY() + bounds.getHeight()) == entry.maxCellY)
+			return;
+
+		this.unbucket(entry);
+		this.bucket(entry);
+	}//end rebucket
+
+	private void bucket(Entry entry) {
+		Rectangle bounds = entry.sprite.getBoundary();
+		entry.minCellX = this.cellOf(bounds.getX());
+		entry.minCellY = this.cellOf(bounds.getY());
+		entry.maxCellX = this.cellOf(bounds.getX() + bounds.getWidth());
+		entry.maxCellY = this.cellOf(bounds.getY() + bounds.getHeight());
+
+		for(int x = entry.minCellX; x <= entry.maxCellX; x++) {
+			for(int y = entry.minCellY; y <= entry.maxCellY; y++) {
+				long cellKey = key(x, y);
+				ArrayList<Entry> cell = cells.get(cellKey);
+				if(cell == null) {
+					cell = freeCells.isEmpty() ? new ArrayList<Entry>() : freeCells.remove(freeCells.size() - 1);
+					cells.put(cellKey, cell);
+				}
+				cell.add(entry);
+			}//end for
+		}//end for
+	}//end bucket
+
+	private void unbucket(Entry entry) {
+		for(int x = entry.minCellX; x <= entry.maxCellX; x++) {
+			for(int y = entry.minCellY; y <= entry.maxCellY; y++) {
+				long cellKey = key(x, y);
+				ArrayList<Entry> cell = cells.get(cellKey);
+				if(cell == null) continue;
+				
+				cell.remove(entry);
+				//Empty cells are dropped and their list kept for reuse, so a sprite moving through new space never allocates
+				if(cell.isEmpty()) {
+					cells.remove(cellKey);
+					freeCells.add(cell);
+				}//end if
+			}//end for
+		}//end for
+	}//end unbucket
+
+	private int cellOf(double coordinate) {
+		return (int)Math.floor(coordinate / cellSize);
+	}
+
+	//Packs 2 cell coordinates into a single key
+	private static long key(int x, int y) {
+		return ((long)x << 32) | (y & 0xffffffffL);
+	}
+
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+}//end SpatialHash
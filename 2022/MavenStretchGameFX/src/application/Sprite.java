@@ -19,6 +19,7 @@ import javafx.scene.canvas.GraphicsContext;
 //This is a generic Sprite object which can be used for all of our game's entities as of now
 public class Sprite {
 	private Vector position;
+	private Vector previousPosition; //Position as of the last tick, used to interpolate rendering between ticks. Null until first saved.
 	
 	private Vector totalVelocity;//Sum of velocity and tempVelocity
 	private Vector velocity;	//Velocity that is a result of the sprites own movement.
@@ -28,6 +29,9 @@ public class Sprite {
 	private Image image;
 	private Rectangle boundary;
 	
+	private EntityStore store; //The store this sprite's state lives in after attach(), null while it holds its own
+	private int id = -1; //This sprite's id in store
+	
 	//Default constructor sets everything to 0
 	public Sprite() {
 		position = new Vector(0,0);
@@ -38,16 +42,51 @@ public class Sprite {
 		boundary = new Rectangle(0,0,0,0);
 	}
 
-	//setImage to a file from a file path
+	//setImage to a file from a file path, the file is only decoded the first time through the ImageCache
 	public void setImage(String filename) {
-		image = new Image(filename);
-		boundary.setWidth(image.getWidth());
-		boundary.setHeight(image.getHeight());
+		image = ImageCache.get(filename);
+		this.setBoundarySize(image.getWidth(), image.getHeight());
 	}
 	
+	/** Moves this sprite's position, velocities, bounds, and flags into an EntityStore
+	 * @param store The store this sprite's state is kept in from now on
+	 * */
+	//PRE: store is not null.
+	//POST: Every Vector this sprite hands out is a view of store, does nothing if this sprite is already in a store.
+	public void attach(EntityStore store) {
+		if(this.store != null) return;
+		
+		int id = store.add();
+		position = this.moveInto(store.vector(store.x, store.y, id), position);
+		//The previous position is always kept in a store so the store can save every entity's at once
+		previousPosition = this.moveInto(store.vector(store.previousX, store.previousY, id), previousPosition != null ? previousPosition : position);
+		velocity = this.moveInto(store.vector(store.velocityX, store.velocityY, id), velocity);
+		totalVelocity = this.moveInto(store.vector(store.totalX, store.totalY, id), totalVelocity);
+		if(tempVelocity != null) {
+			decayingVelocity view = store.decayingVelocity(id);
+			view.set(tempVelocity);
+			view.setDecayRate(tempVelocity.getDecayRate());
+			tempVelocity = view;
+		}//end if
+		store.width[id] = boundary.getWidth();
+		store.height[id] = boundary.getHeight();
+		store.setFlag(id, EntityStore.SOLID, solid);
+		
+		this.store = store;
+		this.id = id;
+	}//end attach
+	
+	//Copies a vector into its view in a store and returns the view that replaces it
+	private Vector moveInto(Vector view, Vector vector) {
+		view.set(vector);
+		return view;
+	}//end moveInto
+	
 	public void addDecayingVelocity(double x, double y, double decayRate) {
 		if(tempVelocity == null) {
-			tempVelocity = new decayingVelocity(x, y, decayRate);
+			tempVelocity = store == null ? new decayingVelocity(0, 0, 0) : store.decayingVelocity(id);
+			tempVelocity.set(x, y);
+			tempVelocity.setDecayRate(decayRate);
 			return;
 		}
 		tempVelocity.add(x, y);
@@ -55,15 +94,16 @@ public class Sprite {
 	}
 	
 	public void addDecayingVelocity(Vector velocity, double decayRate) {
-		if(tempVelocity == null) {
-			tempVelocity = new decayingVelocity(velocity, decayRate);
-			return;
-		}
-		tempVelocity.add(velocity);
-		tempVelocity.setDecayRate(decayRate);
+		this.addDecayingVelocity(velocity.getX(), velocity.getY(), decayRate);
 	}
 	
 	public void update() {
+		//Most sprites updated this way are still scenery, so in a store they skip the views entirely
+		if(store != null && tempVelocity == null) {
+			store.integrate(id);
+			return;
+		}
+		
 		totalVelocity.set(velocity);
 		if(tempVelocity != null) {
 			totalVelocity.add(tempVelocity);
@@ -74,50 +114,73 @@ public class Sprite {
 
 
 	//returns boundary with updated position (essentially our hitbox)
+	//In a store the size is also refreshed from the store, so resize with setBoundarySize rather than through this Rectangle
+	//boundary is only written when it is out of date, so a sprite that isn't moving can be read from several threads at once
 	public Rectangle getBoundary() {
-		boundary.setX(position.getX());
-		boundary.setY(position.getY());
+		if(store != null) {
+			if(boundary.getX() != store.x[id] || boundary.getY() != store.y[id]) boundary.setPosition(store.x[id], store.y[id]);
+			if(boundary.getWidth() != store.width[id]) boundary.setWidth(store.width[id]);
+			if(boundary.getHeight() != store.height[id]) boundary.setHeight(store.height[id]);
+			return boundary;
+		}
+		if(boundary.getX() != position.getX() || boundary.getY() != position.getY()) boundary.setPosition(position.getX(), position.getY());
 		return boundary;
 	}
 	
 	// gets the boundary of Y
 	public double getBoundaryY() {
-		boundary.setY(position.getY());
-		return boundary.getY();
+		if(store != null) return store.y[id];
+		return position.getY();
 	}
 	
 	// gets the boundary of X
 	public double getBoundaryX() {
-		boundary.setX(position.getX());
-		return boundary.getX();
+		if(store != null) return store.x[id];
+		return position.getX();
 	}
 	
 	// directly returns the width of boundary
 	public double getBoundaryWidth() {
+		if(store != null) return store.width[id];
 		return boundary.getWidth();
 	}
 	
 	// directly returns the height of boundary
 	public double getBoundaryHeight() {
+		if(store != null) return store.height[id];
 		return boundary.getHeight();
 	}
 	
-	//Checks if boundary overlaps another sprites
+	//Sets the width and height of boundary
+	public void setBoundarySize(double width, double height) {
+		boundary.setWidth(width);
+		boundary.setHeight(height);
+		if(store != null) {
+			store.width[id] = width;
+			store.height[id] = height;
+		}
+	}
+	
+	//Checks if boundary overlaps another sprites, straight from the arrays when both are in the same store
 	public boolean overlaps(Sprite other) {
+		if(store != null && other.store == store) return store.overlaps(id, other.id);
 		return this.getBoundary().overlaps( other.getBoundary() );
 	}
 	
 	//Checks if the sprite is directly on top of another sprite (Also updates boundary)
 	public boolean onSurface(Sprite other) {
+		if(store != null && other.store == store) return store.bottomSupported(id, other.id);
 		return this.getBoundary().bottomSupported( other.getBoundary() );
 	}
 	
 	public boolean isSolid() {
+		if(store != null) return store.isFlagged(id, EntityStore.SOLID);
 		return solid;
 	}
 	
 	public void setSolid(boolean solid) {
-		this.solid = solid;
+		if(store != null) store.setFlag(id, EntityStore.SOLID, solid);
+		else this.solid = solid;
 	}
 	
 	//draws sprite at current position
@@ -125,6 +188,29 @@ public class Sprite {
 		context.drawImage(image, position.getX(), position.getY());
 	}
 	
+	//draws sprite alpha of the way between its previous and current position
+	public void render(GraphicsContext context, double alpha) {
+		context.drawImage(image, this.getInterpolatedX(alpha), this.getInterpolatedY(alpha));
+	}
+	
+	//Saves the current position as the previous one, called once at the start of every tick
+	public void savePreviousPosition() {
+		if(previousPosition == null) previousPosition = store == null ? new Vector(0, 0) : store.vector(store.previousX, store.previousY, id);
+		previousPosition.set(position);
+	}
+	
+	// gets X alpha of the way from the previous position to the current one
+	public double getInterpolatedX(double alpha) {
+		if(previousPosition == null) return position.getX();
+		return previousPosition.getX() + (position.getX() - previousPosition.getX()) * alpha;
+	}
+	
+	// gets Y alpha of the way from the previous position to the current one
+	public double getInterpolatedY(double alpha) {
+		if(previousPosition == null) return position.getY();
+		return previousPosition.getY() + (position.getY() - previousPosition.getY()) * alpha;
+	}
+	
 	//ADD: SETTER
 	public void setVelocity(double x, double y) {
 		velocity.set(x, y);
@@ -155,14 +241,23 @@ public class Sprite {
 		position.add(other);
 	}
 	
+	//Checks if update() would move this sprite or change the velocity it reports, scenery that isn't moving can be treated as fixed
+	public boolean isMoving() {
+		return this.getVelocityX() != 0 || this.getVelocityY() != 0
+				|| totalVelocity.getX() != 0 || totalVelocity.getY() != 0
+				|| (tempVelocity != null && (tempVelocity.getX() != 0 || tempVelocity.getY() != 0));
+	}
+	
 	
 //generic getters and setters
 	public Vector getTotalVelocity() {
 		return totalVelocity;
 	}
 
+	//In a store the values are copied in, since the store's view has to stay in place
 	public void setTotalVelocity(Vector totalVelocity) {
-		this.totalVelocity = totalVelocity;
+		if(store != null) this.totalVelocity.set(totalVelocity);
+		else this.totalVelocity = totalVelocity;
 	}
 
 	public decayingVelocity getTempVelocity() {
@@ -170,13 +265,18 @@ public class Sprite {
 	}
 
 	public void setTempVelocity(decayingVelocity tempVelocity) {
-		this.tempVelocity = tempVelocity;
+		if(store != null && tempVelocity != null) {
+			this.tempVelocity = null;
+			this.addDecayingVelocity(tempVelocity, tempVelocity.getDecayRate());
+		}
+		else this.tempVelocity = tempVelocity;
 	}
 	public Vector getPosition() {
 		return position;
 	}
 	public void setPosition(Vector position) {
-		this.position = position;
+		if(store != null) this.position.set(position);
+		else this.position = position;
 	}
 	// sets position for Y
 	public void setPositionY(double position) {
@@ -200,7 +300,8 @@ public class Sprite {
 	}
 	// sets the Velocity
 	public void setVelocity(Vector velocity) {
-		this.velocity = velocity;
+		if(store != null) this.velocity.set(velocity);
+		else this.velocity = velocity;
 	}
 	// gets the Image
 	public Image getImage() {
@@ -215,10 +316,21 @@ public class Sprite {
 	// sets the boundary to a Rectangle object
 	public void setBoundary(Rectangle boundary) {
 		this.boundary = boundary;
+		this.setBoundarySize(boundary.getWidth(), boundary.getHeight());
 	}
 	// sets the position with 2 doubles
 	public void setPosition(double x, double y) {
 		position.set(x,y);
 	}
+	
+	// gets the store this sprite's state is in, null if it holds its own
+	public EntityStore getStore() {
+		return store;
+	}
+	
+	// gets this sprite's id in its store, -1 if it isn't in one
+	public int getId() {
+		return id;
+	}
 
 }
\ No newline at end of file
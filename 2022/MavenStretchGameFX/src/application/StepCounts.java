@@ -0,0 +1,44 @@
+package application;
+
+/** StepCounts tallies the work done during one World.step, or during one island of it when islands are stepped in parallel.
+ *  Each island keeps its own tally so no two threads ever add to the same one, and they are added up in order afterwards.
+ *  */
+class StepCounts {
+
+	//Collision work, only counted while a flight recording wants PhysicsStepEvents
+	int physicsUpdated, enemiesUpdated, pairsTested, collisionPairs, enemyCollisionPairs;
+
+	//PhysicsSprites other than the player that were simulated, skipped while asleep, put to sleep, and woken
+	int bodies, asleep, fellAsleep, wokeUp;
+
+	//Sets every count back to 0
+	void clear() {
+		physicsUpdated = enemiesUpdated = pairsTested = collisionPairs = enemyCollisionPairs = 0;
+		bodies = asleep = fellAsleep = wokeUp = 0;
+	}//end clear
+
+	//Adds every count of another tally to this one
+	void add(StepCounts other) {
+		physicsUpdated += other.physicsUpdated;
+		enemiesUpdated += other.enemiesUpdated;
+		pairsTested += other.pairsTested;
+		collisionPairs += other.collisionPairs;
+		enemyCollisionPairs += other.enemyCollisionPairs;
+		bodies += other.bodies;
+		asleep += other.asleep;
+		fellAsleep += other.fellAsleep;
+		wokeUp += other.wokeUp;
+	}//end add
+
+	//Adds the collision work a PhysicsSprite just did
+	void count(PhysicsSprite sprite) {
+		physicsUpdated++;
+		pairsTested += sprite.getPairsTested();
+		collisionPairs += sprite.getCollisionPairs();
+		if(sprite instanceof Enemy) {
+			enemiesUpdated++;
+			enemyCollisionPairs += sprite.getCollisionPairs();
+		}//end if
+	}//end count
+
+}//end StepCounts
@@ -0,0 +1,298 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/** SweepAndPrune is a Broadphase that keeps every Sprite sorted along X by its left edge, suited to long, mostly
+ *  horizontal levels where a grid spends most of its cells on empty sky.
+ *
+ *  Sprites barely move between ticks, so moved ones are put back in place with a few insertion sort swaps instead of
+ *  re-sorting. A query binary searches for the window of left edges that could reach the area, no further left than the
+ *  widest Sprite, then checks each one in that window against the area. Static Sprites wider than WIDE (e.g whole floors)
+ *  are kept to one side and checked by every query instead, so one long floor doesn't stretch every window back to the start.
+ *  */
+public class SweepAndPrune implements Broadphase {
+
+	private Entry[] sorted = new Entry[64]; //Every entry, sorted by minX once clean
+	private Entry[] merged = new Entry[64]; //Scratch a batch of entries is merge sorted through, so refilling never allocates
+	private int size = 0;
+	private int unsortedFrom = 0; //Entries from here on were appended unsorted, the next use sorts them in all at once
+
+	private IdentityHashMap<Sprite, Entry> entries = new IdentityHashMap<Sprite, Entry>(); //Every Sprite and its entry
+	private ArrayList<Entry> dynamicEntries = new ArrayList<Entry>(); //Entries for PhysicsSprites, the only ones refreshed each tick
+	private ArrayList<Entry> wideEntries = new ArrayList<Entry>(); //Entries for static Sprites wider than WIDE, left out of sorted
+	private ArrayList<Entry> freeEntries = new ArrayList<Entry>(); //Entries of removed Sprites, reused so streaming never allocates
+
+	private double maxWidth = 0; //At least as wide as the widest sorted entry, how far left of an area a query has to start
+	private boolean widthDirty = false; //Set when the widest entry may have been removed
+
+	private int nextOrder = 0; //Insertion counter, query results are sorted by it
+	private ArrayList<Entry> found = new ArrayList<Entry>(); //Scratch list reused by every query to sort its results
+
+	//Holds a Sprite alongside the bounds it had when it was last sorted
+	private static class Entry {
+		private Sprite sprite;
+		private int order;
+		private int index; //Where the entry is in sorted
+		private double minX, maxX, minY, maxY, width;
+	}//end Entry
+
+	private static final int BATCH_SORT = 64; //More unsorted entries than this are merge sorted all together instead of one at a time
+	private static final int RUN = 16; //How many entries the merge sort insertion sorts before it starts merging
+	private static final double WIDE = 2048; //Static Sprites wider than this are checked by every query rather than sorted
+
+	@Override
+	public void insert(Sprite sprite) {
+		this.insert(sprite, nextOrder);
+	}//end insert
+
+	//POST: The sprite is appended and the entries are sorted before they are next used, so adding many at once costs one sort.
+	@Override
+	public void insert(Sprite sprite, int order) {
+		if(entries.containsKey(sprite)) return;
+
+		Entry entry = freeEntries.isEmpty() ? new Entry() : freeEntries.remove(freeEntries.size() - 1);
+		entry.sprite = sprite;
+		entry.order = order;
+		nextOrder = Math.max(nextOrder, order + 1);
+		entries.put(sprite, entry);
+		if(sprite instanceof PhysicsSprite) dynamicEntries.add(entry);
+
+		this.measure(entry);
+		//Static Sprites never change size, so one that is wide now stays wide
+		if(!(sprite instanceof PhysicsSprite) && entry.width > WIDE) {
+			entry.index = -1;
+			wideEntries.add(entry);
+			return;
+		}//end if
+
+		maxWidth = Math.max(maxWidth, entry.width);
+		if(size == sorted.length) sorted = Arrays.copyOf(sorted, size * 2);
+		entry.index = size;
+		sorted[size++] = entry;
+	}//end insert
+
+	@Override
+	public void remove(Sprite sprite) {
+		Entry entry = entries.remove(sprite);
+		if(entry == null) return;
+
+		if(entry.index < 0) wideEntries.remove(entry);
+		else this.unsort(entry);
+
+		if(entry.sprite instanceof PhysicsSprite) dynamicEntries.remove(entry);
+		this.free(entry);
+	}//end remove
+
+	//Takes an entry out of sorted
+	private void unsort(Entry entry) {
+		this.sort();
+		System.arraycopy(sorted, entry.index + 1, sorted, entry.index, size - entry.index - 1);
+		sorted[--size] = null;
+		unsortedFrom = size;
+		for(int i = entry.index; i < size; i++) sorted[i].index = i;
+
+		if(entry.width >= maxWidth) widthDirty = true;
+	}//end unsort
+
+	@Override
+	public void update(Sprite sprite) {
+		Entry entry = entries.get(sprite);
+		if(entry == null) return;
+
+		//Wide entries aren't sorted, so one that moved only needs its bounds cached again
+		if(entry.index < 0) {
+			this.measure(entry);
+			return;
+		}//end if
+
+		this.sort();
+		this.measure(entry);
+		maxWidth = Math.max(maxWidth, entry.width);
+		this.resort(entry);
+	}//end update
+
+	@Override
+	public void refresh() {
+		this.sort();
+		for(int i = 0; i < dynamicEntries.size(); i++) {
+			Entry entry = dynamicEntries.get(i);
+			this.measure(entry);
+			maxWidth = Math.max(maxWidth, entry.width);
+			this.resort(entry);
+		}//end for
+	}//end refresh
+
+	@Override
+	public void query(Rectangle area, ArrayList<Sprite> out) {
+		out.clear();
+		found.clear();
+		this.sort();
+		if(widthDirty) this.remeasureWidth();
+
+		double left = area.getX();
+		double right = area.getX() + area.getWidth();
+		double top = area.getY();
+		double bottom = area.getY() + area.getHeight();
+
+		//Nothing whose left edge is further left than the widest entry can reach the area, a pixel of slack covers rounding
+		for(int i = this.firstAtOrAfter(left - maxWidth - 1); i < size; i++) {
+			Entry entry = sorted[i];
+			if(entry.minX > right) break;
+
+			//Edges that only touch still count, matching Rectangle.overlaps
+			if(entry.maxX >= left && entry.minY <= bottom && entry.maxY >= top) this.insertSorted(entry);
+		}//end for
+
+		for(int i = 0; i < wideEntries.size(); i++) {
+			Entry entry = wideEntries.get(i);
+			if(entry.minX <= right && entry.maxX >= left && entry.minY <= bottom && entry.maxY >= top) this.insertSorted(entry);
+		}//end for
+
+		for(int i = 0; i < found.size(); i++)
+			out.add(found.get(i).sprite);
+	}//end query
+
+	/** Removes every Sprite at once, keeping the entries to reuse so refilling never allocates */
+	public void clear() {
+		//Every entry is either sorted or wide, walking those rather than entries keeps clearing from allocating an iterator
+		for(int i = 0; i < size; i++)
+			this.free(sorted[i]);
+		for(int i = 0; i < wideEntries.size(); i++)
+			this.free(wideEntries.get(i));
+		entries.clear();
+		dynamicEntries.clear();
+		wideEntries.clear();
+		Arrays.fill(sorted, 0, size, null);
+		size = unsortedFrom = nextOrder = 0;
+		maxWidth = 0;
+		widthDirty = false;
+	}//end clear
+
+	//Keeps an entry to reuse once its Sprite is gone
+	private void free(Entry entry) {
+		entry.sprite = null;
+		freeEntries.add(entry);
+	}//end free
+
+	@Override
+	public int size() {
+		return size + wideEntries.size();
+	}
+
+	//Sorts in every entry appended since the last use
+	private void sort() {
+		if(unsortedFrom == size) return;
+
+		//A level's worth of entries is merge sorted outright, the few a chunk streams in are insertion sorted
+		if(size - unsortedFrom > BATCH_SORT) {
+			this.mergeSort();
+			for(int i = 0; i < size; i++) sorted[i].index = i;
+		}
+		else {
+			this.insertionSort(0, unsortedFrom, size);
+		}//end else
+		unsortedFrom = size;
+	}//end sort
+
+	//Sorts the entries from from to to, the ones before first are already in order
+	private void insertionSort(int from, int first, int to) {
+		for(int i = Math.max(first, from + 1); i < to; i++) {
+			Entry entry = sorted[i];
+			int j = i;
+			while(j > from && sorted[j - 1].minX > entry.minX) {
+				sorted[j] = sorted[j - 1];
+				sorted[j].index = j;
+				j--;
+			}//end while
+			sorted[j] = entry;
+			entry.index = j;
+		}//end for
+	}//end insertionSort
+
+	//Sorts every entry by minX, keeping entries with the same minX in order like Arrays.sort but through merged so nothing is allocated
+	//POST: sorted is in order, the indexes of the entries still have to be set.
+	private void mergeSort() {
+		if(merged.length < sorted.length) merged = new Entry[sorted.length];
+		for(int from = 0; from < size; from += RUN)
+			this.insertionSort(from, from, Math.min(from + RUN, size));
+
+		//Merges runs into runs twice as long, back and forth between the two arrays
+		Entry[] in = sorted;
+		Entry[] out = merged;
+		for(int width = RUN; width < size; width *= 2) {
+			for(int from = 0; from < size; from += 2 * width) {
+				int middle = Math.min(from + width, size);
+				int to = Math.min(from + 2 * width, size);
+				int a = from, b = middle;
+				for(int i = from; i < to; i++)
+					out[i] = b >= to || (a < middle && in[a].minX <= in[b].minX) ? in[a++] : in[b++];
+			}//end for
+			Entry[] swap = in;
+			in = out;
+			out = swap;
+		}//end for
+
+		if(in != sorted) System.arraycopy(in, 0, sorted, 0, size);
+		Arrays.fill(merged, 0, size, null); //Removed Sprites aren't kept alive by the scratch
+	}//end mergeSort
+
+	//Caches an entry's current bounds
+	private void measure(Entry entry) {
+		Rectangle bounds = entry.sprite.getBoundary();
+		entry.minX = bounds.getX();
+		entry.maxX = bounds.getX() + bounds.getWidth();
+		entry.minY = bounds.getY();
+		entry.maxY = bounds.getY() + bounds.getHeight();
+		entry.width = bounds.getWidth();
+	}//end measure
+
+	//Insertion sorts one entry back into place after its minX changed, usually a swap or none at all
+	private void resort(Entry entry) {
+		int i = entry.index;
+		while(i > 0 && sorted[i - 1].minX > entry.minX) {
+			sorted[i] = sorted[i - 1];
+			sorted[i].index = i;
+			i--;
+		}//end while
+		while(i < size - 1 && sorted[i + 1].minX < entry.minX) {
+			sorted[i] = sorted[i + 1];
+			sorted[i].index = i;
+			i++;
+		}//end while
+		sorted[i] = entry;
+		entry.index = i;
+	}//end resort
+
+	//Finds the widest entry again after the widest may have been removed
+	private void remeasureWidth() {
+		maxWidth = 0;
+		for(int i = 0; i < size; i++) maxWidth = Math.max(maxWidth, sorted[i].width);
+		widthDirty = false;
+	}//end remeasureWidth
+
+	//Binary searches for the first entry whose minX is at least x
+	private int firstAtOrAfter(double x) {
+		int low = 0;
+		int high = size;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(sorted[middle].minX < x) low = middle + 1;
+			else high = middle;
+		}//end while
+		return low;
+	}//end firstAtOrAfter
+
+	//Insertion sort on order keeps results matching a full scan of the original list, results are small so this is cheap
+	private void insertSorted(Entry entry) {
+		int i = found.size();
+		found.add(entry);
+		while(i > 0 && found.get(i - 1).order > entry.order) {
+			found.set(i, found.get(i - 1));
+			i--;
+		}
+		found.set(i, entry);
+	}//end insertSorted
+
+}//end SweepAndPrune
@@ -8,12 +8,14 @@ public class Vector {
 	
 	//Vector constructor
 	public Vector(double x, double y) {
-		this.set(x, y);
+		//Fields are set directly so a subclass's set() isn't called before it is constructed
+		this.x = x;
+		this.y = y;
 		//this class stores vector data for us
 	}
 	
 	public Vector(Vector other) {
-		this.set(other.getX(), other.getY());
+		this(other.getX(), other.getY());
 	}
 	
 	//Sets x and y individually
@@ -22,9 +24,10 @@ public class Vector {
 		this.y = y;
 	}
 	
+	//Other vectors are read through their getters so views over an EntityStore are read correctly
 	public void set(Vector vector2) {
-		this.x = vector2.x;
-		this.y = vector2.y;
+		this.x = vector2.getX();
+		this.y = vector2.getY();
 	}
 	
 	//Adds values to current x and y
@@ -35,8 +38,8 @@ public class Vector {
 	
 	//Adds 2 vectors components
 	public void add(Vector vector2) {
-		this.x += vector2.x;
-		this.y += vector2.y;
+		this.x += vector2.getX();
+		this.y += vector2.getY();
 	}
 	
 	public void addY(double y) {
@@ -44,15 +47,15 @@ public class Vector {
 	}
 	
 	public boolean equals(Vector vector2) {
-		return (this.x == vector2.getX() && this.y == vector2.getY());
+		return (this.getX() == vector2.getX() && this.getY() == vector2.getY());
 	}
 	
 	public boolean equals(double x, double y) {
-		return (this.x == x && this.y == y);
+		return (this.getX() == x && this.getY() == y);
 	}
 	
 	public double getMagnitude() {
-		return Math.sqrt(x*x + y*y);
+		return Math.sqrt(this.getX()*this.getX() + this.getY()*this.getY());
 	}
 	
 	//Multiplies the vector's components by a factor
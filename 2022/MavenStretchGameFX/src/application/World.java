@@ -0,0 +1,536 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/** World is the headless simulation core of a level. It owns every entity and steps them one tick at a time
+ *  from an input bitmask, so it can be run without a display (tests, bots, servers) while Level draws it.
+ * */
+public class World {
+
+	//Bits of the input mask passed into step(), held keys are set every tick they are held
+	public static final int INPUT_LEFT = 1;		//Moves the player left ('A')
+	public static final int INPUT_RIGHT = 2;	//Moves the player right ('D')
+	public static final int INPUT_JUMP = 4;		//Jumps if the player is on a surface ('W')
+	//Size toggles are only set on the single tick after the key is released
+	public static final int INPUT_GROW = 8;		//Toggles between large and normal size ('E')
+	public static final int INPUT_SHRINK = 16;	//Toggles between small and normal size ('Q')
+
+	//Values step() returns, matching the switchCase Level notifies its observers with
+	public static final int RUNNING = 0;
+	public static final int PLAYER_DIED = 1;
+	public static final int LEVEL_BEATEN = 2;
+
+	//Events sent to WorldObservers for things a renderer may want to play a sound for
+	public static final int GEM_COLLECTED = 0;
+	public static final int PLAYER_JUMPED = 1;
+
+	//A list used to track all of this objects observers
+	private ArrayList<WorldObserver> observers = new ArrayList<WorldObserver>();
+
+	//4 Different array lists are used to track 4 unique cases of sprite interactions, when streaming they only hold what is near the player:
+	private ArrayList<Sprite> surfaces = new ArrayList<Sprite>();		//Sprites that can directly interact and collide (e.g walls, crates, enemies).
+	private ArrayList<Sprite> nonsurfaces = new ArrayList<Sprite>();	//Sprites that have no interactions. (e.g tutorial messages, background scenery)
+	private ArrayList<Sprite> hazards = new ArrayList<Sprite>();		//Sprites which damage the player, but aren't necessarily enemies. (environmental hazards like spikes)
+	private ArrayList<Sprite> collectibles = new ArrayList<Sprite>();	//Sprites whose only interaction is to be picked up. (Items the player collects like gems)
+
+	private Broadphase broadphase; //Narrows down the surfaces PhysicsSprites check to what is near them, a SweepAndPrune unless another is set
+	private boolean merging = false; //Whether start() merges runs of static tiles into single colliders, off unless a World opts in
+	private boolean sleeping = false; //Whether PhysicsSprites that have come to rest are put to sleep and skipped, off unless a World opts in
+	private boolean started = false;
+
+	private double chunkWidth = 0; //The width of the chunks the World is streamed in, 0 if every entity is always simulated
+	private int chunkRadius; //How many chunks on each side of the player are simulated
+	private ChunkMap chunks; //The chunks entities are streamed in by, null when streaming is off
+	private ArrayList<Sprite> simulated = surfaces; //The surfaces updated each tick, every surface unless streaming
+
+	private boolean packed = false; //Whether start() moves every entity's state into an EntityStore
+	private EntityStore store; //The store every entity's state is kept in when packed, null otherwise
+
+	private PlayerObject player; //The player, also inside of surfaces
+	private Sprite finish;		 //The level goal post (point of completion), also inside of surfaces
+
+	private int levelTime; //The remaining seconds of game time in the level, also used for the score bonus on completion
+	private double levelScore; //The score earned so far
+
+	private GameClock clock = new GameClock(); //Counts the ticks stepped so far, everything timed in a level is timed by it
+
+	private FrameTimer timer; //Times each phase of a step when set, null when nothing is measuring the World
+
+	//Counts of the work done by the current step, collision work is only counted while a flight recording wants PhysicsStepEvents
+	private boolean counting;
+	private final PhysicsStepEvent stepEvents = new PhysicsStepEvent(); //Only asked whether a recording wants PhysicsStepEvents, never committed
+	private StepCounts counts = new StepCounts();
+	private long sleeps, wakes; //Every time a body has been put to sleep or woken since the World started
+
+	private IslandStepper islands; //Steps independent islands of bodies in parallel, null to step everything on the calling thread
+
+	/** Adds a Sprite that can collide and be collided with */
+	public void addSurface(Sprite surface) {
+		surfaces.add(surface);
+	}
+
+	/** Adds a Sprite that is only drawn and never interacted with */
+	public void addScenery(Sprite scenery) {
+		nonsurfaces.add(scenery);
+	}
+
+	/** Adds a Sprite that damages the player on contact, it must also be added as a surface to be solid */
+	public void addHazard(Sprite hazard) {
+		hazards.add(hazard);
+	}
+
+	/** Adds a Sprite the player can pick up */
+	public void addCollectible(Sprite collectible) {
+		collectibles.add(collectible);
+	}
+
+	/** Sets the player, which is also added as a surface */
+	public void setPlayer(PlayerObject player) {
+		this.player = player;
+		surfaces.add(player);
+	}
+
+	/** Sets the goal post, which is also added as a surface */
+	public void setFinish(Sprite finish) {
+		this.finish = finish;
+		surfaces.add(finish);
+	}
+
+	/** Streams the World in chunks so only the entities near the player are simulated, collided with, and returned by the getters
+	 * @param chunkWidth The width of each chunk
+	 * @param radius How many chunks on each side of the player's chunk are simulated, one more on each side is kept collidable
+	 * */
+	//PRE: start() hasn't been called yet.
+	//POST: start() splits the World into chunks instead of simulating every entity.
+	public void setStreaming(double chunkWidth, int radius) {
+		if(started) throw new IllegalStateException("Streaming must be set before the World is started!");
+		this.chunkWidth = chunkWidth;
+		this.chunkRadius = radius;
+	}//end setStreaming
+
+	/** Keeps every entity's position, velocities, bounds, and physics values in one EntityStore instead of in each Sprite,
+	 *  for stress levels with enough entities that chasing each Sprite's objects shows up in the collision checks
+	 * @param packed Whether start() moves the entities into a store
+	 * */
+	//PRE: start() hasn't been called yet.
+	public void setPacked(boolean packed) {
+		if(started) throw new IllegalStateException("Packing must be set before the World is started!");
+		this.packed = packed;
+	}//end setPacked
+
+	/** Sets the broadphase PhysicsSprites search for nearby surfaces with (e.g a SpatialHash for tall, open levels)
+	 * @param broadphase An empty broadphase, or null for the default SweepAndPrune
+	 * */
+	//PRE: start() hasn't been called yet.
+	public void setBroadphase(Broadphase broadphase) {
+		if(started) throw new IllegalStateException("The broadphase must be set before the World is started!");
+		this.broadphase = broadphase;
+	}//end setBroadphase
+
+	/** Sets whether runs of solid, non-physics tiles laid edge to edge are collided with as one box each, they are drawn the same either way
+	 * @param merging Whether start() merges the tiles, it doesn't unless this is set true
+	 * */
+	//PRE: start() hasn't been called yet.
+	public void setMerging(boolean merging) {
+		if(started) throw new IllegalStateException("Merging must be set before the World is started!");
+		this.merging = merging;
+	}//end setMerging
+
+	/** Sets whether PhysicsSprites that have been still for PhysicsSprite.SLEEP_TICKS ticks are put to sleep and skipped until disturbed
+	 * @param sleeping Whether bodies can sleep, they can't unless this is set true
+	 * */
+	public void setSleeping(boolean sleeping) {
+		this.sleeping = sleeping;
+	}//end setSleeping
+
+	/** Steps bodies that can't touch each other during a tick in parallel, with the same results as stepping them in order
+	 * @param pool The pool islands of bodies are stepped on, or null to step everything on the calling thread
+	 * */
+	public void setParallel(ForkJoinPool pool) {
+		islands = pool == null ? null : new IslandStepper(pool);
+	}//end setParallel
+
+	/** Readies the World for stepping by bucketing every surface into the broadphase */
+	//PRE: All level entities have been added and a player has been set.
+	//POST: Every surface (or every surface near the player when streaming) is bucketed into the broadphase and each PhysicsSprite is set to search it.
+	public void start() {
+		if(player == null) throw new IllegalStateException("A World can't be started without a player!");
+
+		//Entities are stored in the order they were added, the same order every list is swept in
+		if(packed) {
+			store = new EntityStore(surfaces.size() + nonsurfaces.size() + hazards.size() + collectibles.size());
+			for(ArrayList<Sprite> list : Arrays.asList(surfaces, nonsurfaces, hazards, collectibles)) {
+				for(Sprite sprite : list) sprite.attach(store);
+			}
+		}//end if
+
+		started = true;
+		if(broadphase == null) broadphase = new SweepAndPrune();
+
+		//Merged tiles are swapped for their collider as they are inserted, so the lists still hold every tile to draw
+		if(merging) {
+			MergedColliders merged = new MergedColliders(broadphase);
+			merged.merge(surfaces);
+			broadphase = merged;
+		}//end if
+
+		for(Sprite surface : surfaces) {
+			if(chunkWidth <= 0) broadphase.insert(surface);
+			if(surface instanceof PhysicsSprite)
+				((PhysicsSprite)surface).setBroadphase(broadphase);
+		}//end for
+
+		//When streaming, the lists the World works on are swapped for the chunks' lists of what is near the player
+		if(chunkWidth > 0) {
+			chunks = new ChunkMap(chunkWidth, chunkRadius);
+			chunks.build(Arrays.asList(surfaces, nonsurfaces, hazards, collectibles), broadphase);
+			chunks.update(this.focusX());
+
+			surfaces = chunks.getActive(ChunkMap.SURFACES);
+			nonsurfaces = chunks.getActive(ChunkMap.NONSURFACES);
+			hazards = chunks.getActive(ChunkMap.HAZARDS);
+			collectibles = chunks.getActive(ChunkMap.COLLECTIBLES);
+			simulated = chunks.getSimulated();
+		}//end if
+	}//end start
+
+	/** Steps every entity forward by one tick.
+	 * @param inputs A bitmask of the INPUT_ constants active this tick
+	 * @return RUNNING, or PLAYER_DIED / LEVEL_BEATEN if the level ended on this tick
+	 * */
+	//PRE: start() has been called.
+	//POST: Every sprite is updated once, score is updated, and the player responds to inputs.
+	public int step(int inputs) {
+		//An event is only made while a recording wants one, so a tick allocates nothing otherwise
+		counting = stepEvents.isEnabled();
+		PhysicsStepEvent event = counting ? new PhysicsStepEvent() : null;
+		counts.clear();
+		if(event != null) event.begin();
+
+		int status = this.advance(inputs);
+		sleeps += counts.fellAsleep;
+		wakes += counts.wokeUp;
+		if(event == null) return status;
+
+		event.end();
+		if(event.shouldCommit()) {
+			event.tick = clock.getTicks();
+			event.simulated = simulated.size();
+			event.physicsSprites = counts.physicsUpdated;
+			event.enemies = counts.enemiesUpdated;
+			event.pairsTested = counts.pairsTested;
+			event.collisionPairs = counts.collisionPairs;
+			event.enemyCollisionPairs = counts.enemyCollisionPairs;
+			event.asleep = counts.asleep;
+			event.fellAsleep = counts.fellAsleep;
+			event.wokeUp = counts.wokeUp;
+			event.islands = islands == null ? 0 : islands.getIslandCount();
+			event.largestIsland = islands == null ? 0 : islands.getLargestIsland();
+			event.parallelSpeedup = islands == null ? 1 : islands.getSpeedup();
+			event.commit();
+		}//end if
+
+		return status;
+	}//end step
+
+	//The body of step, kept apart so the flight recorder event wraps every return
+	private int advance(int inputs) {
+		clock.tick();
+		this.phase(FrameTimer.PHYSICS);
+
+		//Brings in the chunks around the player and freezes the ones it has left behind
+		if(chunks != null) chunks.update(this.focusX());
+
+		//Saves where every moving sprite was so rendering can interpolate towards where it ends up
+		//Every loop in a step is indexed rather than iterated so a tick never allocates
+		if(store != null) store.savePreviousPositions();
+		else {
+			for(int i = 0; i < surfaces.size(); i++) {
+				surfaces.get(i).savePreviousPosition();
+			}
+		}//end else
+
+		//Size toggles happen before anything moves, the same as when they were applied between frames
+		this.phase(FrameTimer.INPUT);
+		if((inputs & INPUT_GROW) != 0) {
+			if(player.getMass() != 2)
+				player.grow(surfaces);
+			else
+				player.returnToBaseSize(surfaces);
+		}//end if
+
+		if((inputs & INPUT_SHRINK) != 0) {
+			if(player.getMass() != 0.5)
+				player.shrink();
+			else
+				player.returnToBaseSize(surfaces);
+		}//end if
+
+		//Catches any PhysicsSprites that were moved outside of an update (e.g the player changing size)
+		this.phase(FrameTimer.PHYSICS);
+		broadphase.refresh();
+
+		//pointer used to move through surfaces list
+		Sprite pointer;
+
+
+		//Updates every object in level in order of declaration, unless there are islands of bodies that can be updated side by side
+		if(islands == null || !islands.step(this, surfaces, simulated, broadphase, counts)) {
+			for(int i = 0; i < simulated.size(); i++) {
+				pointer = simulated.get(i);
+				this.phase(pointer instanceof Enemy ? FrameTimer.ENEMY_AI : FrameTimer.PHYSICS);
+				if(this.simulate(pointer, counts)) broadphase.update(pointer);
+			}//end for
+		}//end if
+
+		//Moves anything that crossed into another chunk over to it
+		this.phase(FrameTimer.PHYSICS);
+		if(chunks != null) chunks.track();
+
+		//Runs through surfaces to remove all enemies who's health has been depleted
+		this.phase(FrameTimer.ENEMY_AI);
+		for(int i = 0; i < surfaces.size(); i++) {
+			pointer = surfaces.get(i);
+			if(pointer instanceof Enemy && ((Enemy)pointer).getHealth() <= 0) {
+				surfaces.remove(pointer);
+				broadphase.remove(pointer);
+				if(chunks != null) chunks.remove(pointer, ChunkMap.SURFACES);
+				this.wakeResting(pointer);
+				levelScore += 320;
+			}
+		}
+
+		//For loop runs through collectibles and removes them if touched by player, also updates score
+		this.phase(FrameTimer.COLLECTIBLES);
+		for(int i = 0; i < collectibles.size(); i++) {
+			pointer = collectibles.get(i);
+			if(pointer.overlaps(player)) {
+				levelScore += 80;
+
+				if(player.getHealth() < 200)
+					if(player.getHealth() + 40 >= 200) player.setHealth(200);
+					else player.setHealth(player.getHealth() + 40);
+
+				this.notifyObservers(GEM_COLLECTED);
+				collectibles.remove(pointer);
+				if(chunks != null) chunks.remove(pointer, ChunkMap.COLLECTIBLES);
+			}
+		}
+
+
+		//Series of if statements checking for player inputs
+		this.phase(FrameTimer.INPUT);
+		boolean left = (inputs & INPUT_LEFT) != 0;
+		boolean right = (inputs & INPUT_RIGHT) != 0;
+		if (left)
+			player.setVelocityX(-5);
+		if (right)
+			player.setVelocityX(5);
+		if(left && right)
+			player.setVelocityX(0);
+		if(!(left || right))
+			player.setVelocityX(0);
+		//Jump action requires slime to also be on surface
+		if ((inputs & INPUT_JUMP) != 0 && player.isOnSurface() && !player.isBouncing()) {
+			player.getVelocity().add(0,-20);
+			this.notifyObservers(PLAYER_JUMPED);
+		}
+
+
+		this.phase(FrameTimer.OTHER);
+
+		//The level counts down one second for every second of game time, stopping at 0
+		if(clock.isWholeSecond() && levelTime > 0)
+			levelTime--;
+
+		//Checks if player is dead
+		if(player.getHealth() <= 0) {
+			return PLAYER_DIED;
+		}//end if
+
+		//Checks if player has beat the level by reaching the goal-post object
+		else if(finish != null && player.overlaps(finish)){
+			levelScore += player.getHealth()*3 + levelTime*2;
+			return LEVEL_BEATEN;
+		}//end if
+
+		return RUNNING;
+	}//end advance
+
+	/** Updates one simulated sprite for this tick
+	 * @param pointer The sprite being updated
+	 * @param counts The tally its work is counted into
+	 * @return true if pointer isn't a PhysicsSprite and it moved, so the caller's broadphase has to be told
+	 * */
+	//PRE: Only called during a step, on one thread at a time for any sprite pointer can touch.
+	//POST: pointer is updated unless it is a sleeping body, then it is put to sleep if it has come to rest.
+	boolean simulate(Sprite pointer, StepCounts counts) {
+		if(pointer instanceof PlayerObject)
+			((PlayerObject)pointer).playerUpdate(surfaces, hazards);
+		else if (pointer instanceof PhysicsSprite) {
+			PhysicsSprite body = (PhysicsSprite)pointer;
+			counts.bodies++;
+
+			//A sleeping body is skipped until an awake one bumps into it or what it rests on moves
+			if(body.isAsleep() && body.isSupportMoved() && body.wake()) counts.wokeUp++;
+			if(body.isAsleep()) {
+				counts.asleep++;
+				return false;
+			}//end if
+			body.update(surfaces);
+		}//end else if
+		else {
+			//PhysicsSprites keep the broadphase up to date themselves, anything else that moves has to be passed back
+			double x = pointer.getBoundaryX();
+			double y = pointer.getBoundaryY();
+			pointer.update();
+			return pointer.getBoundaryX() != x || pointer.getBoundaryY() != y;
+		}//end else
+
+		//Counts the bodies it just woke, then lets it fall asleep if it has come to rest
+		PhysicsSprite body = (PhysicsSprite)pointer;
+		counts.wokeUp += body.getBodiesWoken();
+		if(sleeping && body.settle()) counts.fellAsleep++;
+		if(counting) counts.count(body);
+		return false;
+	}//end simulate
+
+	//Wakes every sleeping body resting on a sprite that is being taken out of the World, since nothing holds it up anymore
+	private void wakeResting(Sprite removed) {
+		for(int i = 0; i < surfaces.size(); i++) {
+			Sprite pointer = surfaces.get(i);
+			if(pointer instanceof PhysicsSprite && ((PhysicsSprite)pointer).getSupport() == removed && ((PhysicsSprite)pointer).wake())
+				counts.wokeUp++;
+		}//end for
+	}//end wakeResting
+
+	//Switches the timer to another phase if the World is being timed
+	private void phase(int phase) {
+		if(timer != null) timer.phase(phase);
+	}//end phase
+
+	//Returns the x position chunks are streamed around, the middle of the player
+	private double focusX() {
+		return player.getBoundaryX() + player.getBoundaryWidth()/2;
+	}//end focusX
+
+	/** Adds a new observer to this World
+	 * @param o The observer being added
+	 * */
+	public void subscribeObserver(WorldObserver o) {
+		observers.add(o);
+	}//end subscribeObserver
+
+	//Sends an event to every observer
+	private void notifyObservers(int event) {
+		for(int i = 0; i < observers.size(); i++) {
+			observers.get(i).worldEvent(event);
+		}//end for
+	}//end notifyObservers
+
+
+	//Generic getters and setters
+	public ArrayList<Sprite> getSurfaces() {
+		return surfaces;
+	}
+
+	public ArrayList<Sprite> getNonsurfaces() {
+		return nonsurfaces;
+	}
+
+	public ArrayList<Sprite> getHazards() {
+		return hazards;
+	}
+
+	public ArrayList<Sprite> getCollectibles() {
+		return collectibles;
+	}
+
+	//Returns the surfaces updated each tick, every surface unless the World is streamed
+	public ArrayList<Sprite> getSimulated() {
+		return simulated;
+	}
+
+	//Returns the chunks the World is streamed in, null if streaming is off
+	public ChunkMap getChunks() {
+		return chunks;
+	}
+
+	public Broadphase getBroadphase() {
+		return broadphase;
+	}
+
+	public PlayerObject getPlayer() {
+		return player;
+	}
+
+	public Sprite getFinish() {
+		return finish;
+	}
+
+	public int getLevelTime() {
+		return levelTime;
+	}
+
+	public void setLevelTime(int levelTime) {
+		this.levelTime = levelTime;
+	}
+
+	public double getLevelScore() {
+		return levelScore;
+	}
+
+	public void setLevelScore(double levelScore) {
+		this.levelScore = levelScore;
+	}
+
+	public long getTicks() {
+		return clock.getTicks();
+	}
+
+	public GameClock getClock() {
+		return clock;
+	}
+
+	//Returns how many PhysicsSprites other than the player were simulated in the last step
+	public int getBodies() {
+		return counts.bodies;
+	}
+
+	//Returns how many of those were asleep and skipped
+	public int getAsleep() {
+		return counts.asleep;
+	}
+
+	//Returns how many times a body has been put to sleep since the World started
+	public long getSleeps() {
+		return sleeps;
+	}
+
+	//Returns how many times a body has been woken since the World started
+	public long getWakes() {
+		return wakes;
+	}
+
+	//Returns what steps islands of bodies in parallel, null unless setParallel() was given a pool
+	public IslandStepper getIslands() {
+		return islands;
+	}
+
+	//Returns the store entities are kept in, null unless the World was packed
+	public EntityStore getStore() {
+		return store;
+	}
+
+	public FrameTimer getTimer() {
+		return timer;
+	}
+
+	//Sets the timer each step is timed with, its frame must be begun by whoever steps the World
+	public void setTimer(FrameTimer timer) {
+		this.timer = timer;
+	}
+
+}//end World
@@ -0,0 +1,6 @@
+package application;
+
+//Interface for anything that reacts to events inside a World, such as a renderer playing sounds
+public interface WorldObserver {
+	public void worldEvent(int event);
+}
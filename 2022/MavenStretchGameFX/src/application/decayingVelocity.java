@@ -25,16 +25,16 @@ public class decayingVelocity extends Vector {
 		double decayedVelocityY = Math.signum(this.getY());
 		
 		//Decreases absolute value of x velocity
-		if( (Math.abs(this.getX()) - decayRate) < 0)
+		if( (Math.abs(this.getX()) - this.getDecayRate()) < 0)
 			decayedVelocityX = 0;
 		else
-			decayedVelocityX *= (Math.abs(this.getX()) - decayRate);
+			decayedVelocityX *= (Math.abs(this.getX()) - this.getDecayRate());
 		
 		//Decreases absolute value of y velocity
-		if( (Math.abs(this.getY()) - decayRate) < 0)
+		if( (Math.abs(this.getY()) - this.getDecayRate()) < 0)
 			decayedVelocityY = 0;
 		else
-			decayedVelocityY *= (Math.abs(this.getY()) - decayRate);
+			decayedVelocityY *= (Math.abs(this.getY()) - this.getDecayRate());
 
 		this.set(decayedVelocityX, decayedVelocityY);
 	}
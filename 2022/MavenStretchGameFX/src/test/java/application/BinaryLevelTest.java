@@ -0,0 +1,188 @@
+package application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Checks that every text level converted by LevelConverter and mapped back by BinaryLevel is the level LevelLoader reads */
+public class BinaryLevelTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void everyLevelRoundTrips() throws Exception {
+		ArrayList<File> levels = textLevels();
+		assertTrue("No text levels were found to convert", levels.size() > 0);
+
+		for(File text : levels) {
+			String name = text.getName();
+			int levelNum = Integer.parseInt(name.substring("level".length(), name.length() - ".txt".length()));
+
+			File binary = new File(folder.getRoot(), "level" + levelNum + ".bin");
+			LevelConverter.convert(text, binary);
+			LevelData mapped = BinaryLevel.read(binary);
+
+			//The converted level must match the text it came from, and whichever form the game itself reads
+			assertLevelEquals(name, parse(text), mapped);
+			assertLevelEquals(name, LevelLoader.read(levelNum), mapped);
+		}//end for
+	}//end everyLevelRoundTrips
+
+	@Test
+	public void sharedImagePathsSurviveTheStringTable() throws Exception {
+		LevelData level = new LevelData();
+		level.setLevelTime(42);
+		LevelData.Entity first = entity(LevelData.ENEMY, "Pictures/Eye.png", "Pictures/EyeRight.png");
+		LevelData.Entity second = entity(LevelData.ENEMY, "Pictures/Eye.png", "Pictures/EyeRight.png");
+		LevelData.Entity crate = entity(LevelData.PHYSICS, "Pictures/Crate.png", null);
+		crate.solid = Boolean.FALSE;
+		level.getEntities().add(first);
+		level.getEntities().add(second);
+		level.getEntities().add(crate);
+		level.getEntities().add(entity(LevelData.PLAYER, "Pictures/Slime.png", null));
+
+		assertLevelEquals("shared.bin", level, BinaryLevel.read(this.write(level, "shared.bin")));
+	}//end sharedImagePathsSurviveTheStringTable
+
+	@Test
+	public void longImagePathsSurvive() throws Exception {
+		//Longer than a signed short can count, but still within the unsigned length the table stores
+		LevelData level = playerOnly(path(40000));
+		assertLevelEquals("long.bin", level, BinaryLevel.read(this.write(level, "long.bin")));
+	}//end longImagePathsSurvive
+
+	@Test(expected = IllegalArgumentException.class)
+	public void tooLongImagePathIsRejected() throws Exception {
+		BinaryLevel.write(playerOnly(path(70000)), new ByteArrayOutputStream());
+	}//end tooLongImagePathIsRejected
+
+	@Test
+	public void levelWithoutPlayerIsRejected() throws Exception {
+		LevelData level = new LevelData();
+		level.getEntities().add(entity(LevelData.PHYSICS, "Pictures/Crate.png", null));
+		File binary = this.write(level, "noplayer.bin");
+
+		try {
+			BinaryLevel.read(binary);
+			fail("read() accepted a level with no player");
+		} catch(IllegalArgumentException e) {
+			assertEquals("The level has no player!", e.getMessage());
+		}
+
+		try {
+			BinaryLevel.load(ByteBuffer.wrap(Files.readAllBytes(binary.toPath())), new World(), false);
+			fail("load() accepted a level with no player");
+		} catch(IllegalArgumentException e) {
+			assertEquals("The level has no player!", e.getMessage());
+		}
+	}//end levelWithoutPlayerIsRejected
+
+	//Writes a level to a binary file in the temporary folder
+	private File write(LevelData level, String name) throws IOException {
+		File binary = folder.newFile(name);
+		OutputStream out = new FileOutputStream(binary);
+		try {
+			BinaryLevel.write(level, out);
+		} finally {
+			out.close();
+		}
+		return binary;
+	}//end write
+
+	//A level holding only a player drawn with the given picture
+	private static LevelData playerOnly(String image) {
+		LevelData level = new LevelData();
+		level.getEntities().add(entity(LevelData.PLAYER, image, null));
+		return level;
+	}//end playerOnly
+
+	//A picture path of the given length in bytes
+	private static String path(int length) {
+		StringBuilder path = new StringBuilder("Pictures/");
+		while(path.length() < length) path.append('a');
+		return path.toString();
+	}//end path
+
+	//Compares two levels entity by entity, field by field
+	private static void assertLevelEquals(String name, LevelData expected, LevelData actual) {
+		assertEquals(name + " time", expected.getLevelTime(), actual.getLevelTime());
+		assertEquals(name + " entity count", expected.getEntities().size(), actual.getEntities().size());
+
+		for(int i = 0; i < expected.getEntities().size(); i++) {
+			LevelData.Entity want = expected.getEntities().get(i);
+			LevelData.Entity got = actual.getEntities().get(i);
+			String entity = name + " entity " + i + " ";
+
+			assertEquals(entity + "type", want.type, got.type);
+			assertEquals(entity + "image", want.image, got.image);
+			assertEquals(entity + "rightImage", want.rightImage, got.rightImage);
+			assertEquals(entity + "x", want.x, got.x, 0);
+			assertEquals(entity + "y", want.y, got.y, 0);
+			assertEquals(entity + "width", want.width, got.width, 0);
+			assertEquals(entity + "height", want.height, got.height, 0);
+			assertEquals(entity + "solid", want.solid, got.solid);
+			assertEquals(entity + "mass", want.mass, got.mass, 0);
+			assertEquals(entity + "gravity", want.gravity, got.gravity, 0);
+			assertEquals(entity + "health", want.health, got.health, 0);
+		}//end for
+	}//end assertLevelEquals
+
+	//Returns every levelN.txt in the Levels folder on the classpath
+	private static ArrayList<File> textLevels() throws URISyntaxException {
+		URL folder = LevelLoader.class.getResource("/" + LevelLoader.LEVEL_FOLDER);
+		assertNotNull("The Levels folder isn't on the classpath", folder);
+
+		ArrayList<File> levels = new ArrayList<File>();
+		File[] files = new File(folder.toURI()).listFiles();
+		for(File file : files) {
+			if(file.getName().matches("level\\d+\\.txt")) levels.add(file);
+		}//end for
+		return levels;
+	}//end textLevels
+
+	//Parses a text level file
+	private static LevelData parse(File text) throws IOException {
+		InputStream in = new FileInputStream(text);
+		try {
+			return LevelLoader.parse(in);
+		} finally {
+			in.close();
+		}
+	}//end parse
+
+	//Creates an entity with every number set to something distinct
+	private static LevelData.Entity entity(int type, String image, String rightImage) {
+		LevelData.Entity entity = new LevelData.Entity();
+		entity.type = type;
+		entity.image = image;
+		entity.rightImage = rightImage;
+		entity.x = 12.5;
+		entity.y = -340.25;
+		entity.width = 162;
+		entity.height = 164;
+		entity.mass = 1.5;
+		entity.gravity = .5;
+		entity.health = 200;
+		return entity;
+	}//end entity
+
+}//end BinaryLevelTest
@@ -0,0 +1,49 @@
+package application;
+
+import org.junit.Test;
+
+/** Checks that each broadphase finds the same sprites a BruteForce scan does, so swapping one in never changes how anything moves */
+public class BroadphaseTest {
+
+	private static final int TICKS = 1500;
+
+	@Test
+	public void sweepAndPruneMatchesBruteForce() {
+		this.assertSameAsBruteForce("crates", TestWorlds.crates(60, 12, 2, 3), TestWorlds.crates(60, 12, 2, 3), new SweepAndPrune());
+	}//end sweepAndPruneMatchesBruteForce
+
+	@Test
+	public void spatialHashMatchesBruteForce() {
+		this.assertSameAsBruteForce("crates", TestWorlds.crates(60, 12, 2, 3), TestWorlds.crates(60, 12, 2, 3), new SpatialHash(256));
+	}//end spatialHashMatchesBruteForce
+
+	@Test
+	public void wideMovingPlatformIsFollowed() {
+		//Wider than SweepAndPrune keeps sorted, so it is one of the entries checked by every query
+		this.assertSameAsBruteForce("wide platform", this.descendingPlatform(3000), this.descendingPlatform(3000), new SweepAndPrune());
+	}//end wideMovingPlatformIsFollowed
+
+	@Test
+	public void narrowMovingPlatformIsFollowed() {
+		this.assertSameAsBruteForce("narrow platform", this.descendingPlatform(2000), this.descendingPlatform(2000), new SweepAndPrune());
+	}//end narrowMovingPlatformIsFollowed
+
+	//Steps one World searched with a BruteForce scan and one searched with broadphase side by side
+	private void assertSameAsBruteForce(String name, World expected, World actual, Broadphase broadphase) {
+		expected.setBroadphase(new BruteForce());
+		expected.start();
+		actual.setBroadphase(broadphase);
+		actual.start();
+		TestWorlds.assertSameRun(name, expected, actual, TICKS);
+	}//end assertSameAsBruteForce
+
+	//A crate scene with a thin solid platform slowly coming down onto the crates
+	private World descendingPlatform(double width) {
+		World world = TestWorlds.crates(60, 12, 0, 3);
+		Sprite platform = TestWorlds.solid(1000, -900, width, 50);
+		platform.setVelocity(0, 1);
+		world.addSurface(platform);
+		return world;
+	}//end descendingPlatform
+
+}//end BroadphaseTest
@@ -0,0 +1,71 @@
+package application;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/** Checks that merging runs of static tiles into single colliders changes how many entries are searched, never how anything moves */
+public class MergedCollidersTest {
+
+	private static final int TICKS = 3000;
+
+	@Test
+	public void mergingIsOffByDefault() {
+		World world = TestWorlds.level(1);
+		world.start();
+		assertFalse(world.getBroadphase() instanceof MergedColliders);
+	}//end mergingIsOffByDefault
+
+	@Test
+	public void mergingShrinksTheBroadphase() {
+		World unmerged = TestWorlds.crates(200, 20, 0, 5);
+		unmerged.start();
+		World merged = TestWorlds.crates(200, 20, 0, 5);
+		merged.setMerging(true);
+		merged.start();
+
+		MergedColliders colliders = (MergedColliders)merged.getBroadphase();
+		assertTrue(colliders.getColliderCount() < colliders.getTilesMerged());
+		assertTrue(merged.getBroadphase().size() < unmerged.getBroadphase().size());
+	}//end mergingShrinksTheBroadphase
+
+	@Test
+	public void levelOneMovesTheSameMerged() {
+		this.assertSameRun("level 1", TestWorlds.level(1), TestWorlds.level(1));
+	}//end levelOneMovesTheSameMerged
+
+	@Test
+	public void levelTwoMovesTheSameMerged() {
+		this.assertSameRun("level 2", TestWorlds.level(2), TestWorlds.level(2));
+	}//end levelTwoMovesTheSameMerged
+
+	@Test
+	public void crateSceneMovesTheSameMerged() {
+		this.assertSameRun("crates", TestWorlds.crates(200, 60, 10, 3), TestWorlds.crates(200, 60, 10, 3));
+	}//end crateSceneMovesTheSameMerged
+
+	@Test
+	public void movingTileIsNotMerged() {
+		this.assertSameRun("moving tile", this.movingTile(), this.movingTile());
+	}//end movingTileIsNotMerged
+
+	//A crate scene with a block on the floor and one beside it sliding off towards the player, which the player runs into
+	private World movingTile() {
+		World world = TestWorlds.crates(60, 6, 0, 3);
+		world.addSurface(TestWorlds.solid(3000, -TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE));
+		Sprite sliding = TestWorlds.solid(3000 - TestWorlds.TILE_SIZE, -TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE);
+		sliding.setVelocity(-1, 0);
+		world.addSurface(sliding);
+		return world;
+	}//end movingTile
+
+	//Steps a scene unmerged and merged side by side, every body must be in the same place with the same velocity on every tick
+	private void assertSameRun(String name, World unmerged, World merged) {
+		unmerged.start();
+		merged.setMerging(true);
+		merged.start();
+		TestWorlds.assertSameRun(name, unmerged, merged, TICKS);
+	}//end assertSameRun
+
+}//end MergedCollidersTest
@@ -0,0 +1,90 @@
+package application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** Checks that stepping islands of bodies side by side leaves a World in exactly the state stepping everything in order does */
+public class ParallelStepTest {
+
+	private static final int TICKS = 3000;
+
+	//More threads than islands that are worth splitting, so islands really are stepped at the same time even on one processor
+	private static ForkJoinPool pool;
+
+	@BeforeClass
+	public static void startPool() {
+		pool = new ForkJoinPool(4);
+	}//end startPool
+
+	@AfterClass
+	public static void stopPool() {
+		pool.shutdown();
+	}//end stopPool
+
+	@Test
+	public void levelOneReplaysTheSame() {
+		this.assertSameReplay(1);
+	}//end levelOneReplaysTheSame
+
+	@Test
+	public void levelTwoReplaysTheSame() {
+		this.assertSameReplay(2);
+	}//end levelTwoReplaysTheSame
+
+	@Test
+	public void crateSceneStepsTheSame() {
+		World serial = TestWorlds.crates(200, 30, 4, 7);
+		serial.start();
+		World parallel = TestWorlds.crates(200, 30, 4, 7);
+		parallel.setParallel(pool);
+		parallel.start();
+
+		TestWorlds.assertSameRun("crates", serial, parallel, TICKS);
+		assertTrue(parallel.getIslands().getIslandCount() > 1);
+	}//end crateSceneStepsTheSame
+
+	@Test
+	public void movingSceneryStaysInOrder() {
+		World serial = this.slidingBlocks();
+		serial.start();
+		World parallel = this.slidingBlocks();
+		parallel.setParallel(pool);
+		parallel.start();
+
+		TestWorlds.assertSameRun("sliding blocks", serial, parallel, TICKS);
+		assertTrue(parallel.getIslands().getIslandCount() > 1);
+	}//end movingSceneryStaysInOrder
+
+	//Records the scripted input on a level, then replays the recording on a World stepped in order and one stepped in parallel
+	private void assertSameReplay(int levelNum) {
+		InputRecording recording = new InputRecording(levelNum, 0, 0);
+		for(long tick = 0; tick < TICKS; tick++)
+			recording.record(TestWorlds.inputs(tick));
+
+		World serial = recording.createWorld();
+		World parallel = recording.createWorld();
+		parallel.setParallel(pool);
+
+		assertEquals("level " + levelNum + " status", recording.replay(serial), recording.replay(parallel));
+		assertEquals("level " + levelNum + " ticks", serial.getTicks(), parallel.getTicks());
+		TestWorlds.assertSameState("level " + levelNum, serial, parallel);
+	}//end assertSameReplay
+
+	//A crate scene with blocks sliding along the floor, which crates run into and the player has to get over
+	private World slidingBlocks() {
+		World world = TestWorlds.crates(200, 30, 4, 11);
+		for(int i = 0; i < 10; i++) {
+			Sprite block = TestWorlds.solid(1000 + i * 1800, -TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE, TestWorlds.TILE_SIZE);
+			block.setVelocity(i % 2 == 0 ? 1 : -1, 0);
+			world.addSurface(block);
+		}//end for
+		return world;
+	}//end slidingBlocks
+
+}//end ParallelStepTest
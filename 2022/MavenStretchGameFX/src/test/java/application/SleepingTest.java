@@ -0,0 +1,81 @@
+package application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/** Checks that a body resting on the floor only sleeps when its World allows it, and is woken when the player lands on it */
+public class SleepingTest {
+
+	private static final double CRATE_X = 800; //Far enough from the player that it never bumps the crate until it is dropped on it
+
+	@Test
+	public void bodiesStayAwakeByDefault() {
+		World world = restingCrate();
+		world.start();
+		PhysicsSprite crate = crate(world);
+
+		stand(world, PhysicsSprite.SLEEP_TICKS * 3);
+		assertFalse(crate.isAsleep());
+		assertEquals(0, world.getSleeps());
+	}//end bodiesStayAwakeByDefault
+
+	@Test
+	public void restingBodyFallsAsleep() {
+		World world = restingCrate();
+		world.setSleeping(true);
+		world.start();
+		PhysicsSprite crate = crate(world);
+
+		stand(world, PhysicsSprite.SLEEP_TICKS + 10);
+		assertTrue(crate.isAsleep());
+		assertEquals(1, world.getSleeps());
+		assertEquals(0, crate.getVelocityX(), 0);
+		assertEquals(0, crate.getVelocityY(), 0);
+	}//end restingBodyFallsAsleep
+
+	@Test
+	public void playerLandingWakesIt() {
+		World world = restingCrate();
+		world.setSleeping(true);
+		world.start();
+		PhysicsSprite crate = crate(world);
+		stand(world, PhysicsSprite.SLEEP_TICKS + 10);
+		assertTrue(crate.isAsleep());
+
+		//Drops the player from above onto the middle of the crate
+		PlayerObject player = world.getPlayer();
+		player.setPosition(CRATE_X + (TestWorlds.CRATE_WIDTH - player.getBoundaryWidth()) / 2, -TestWorlds.CRATE_HEIGHT - player.getBoundaryHeight() - 200);
+		for(int i = 0; i < 200 && crate.isAsleep(); i++)
+			world.step(0);
+
+		assertFalse(crate.isAsleep());
+		assertEquals(1, world.getWakes());
+	}//end playerLandingWakesIt
+
+	//A short walled floor with one crate already resting on it and the player standing at the left end, not started
+	private static World restingCrate() {
+		World world = TestWorlds.crates(20, 0, 0, 0);
+		PhysicsSprite crate = new PhysicsSprite(1, .5);
+		crate.setBoundary(new Rectangle(0, 0, TestWorlds.CRATE_WIDTH, TestWorlds.CRATE_HEIGHT));
+		crate.setPosition(CRATE_X, -TestWorlds.CRATE_HEIGHT);
+		world.addSurface(crate);
+		return world;
+	}//end restingCrate
+
+	//The only surface in a restingCrate World that isn't the player but can move
+	private static PhysicsSprite crate(World world) {
+		for(Sprite sprite : world.getSurfaces())
+			if(sprite instanceof PhysicsSprite && !(sprite instanceof PlayerObject)) return (PhysicsSprite)sprite;
+		throw new IllegalStateException("The World has no crate!");
+	}//end crate
+
+	//Steps the World without any input
+	private static void stand(World world, int ticks) {
+		for(int i = 0; i < ticks; i++)
+			world.step(0);
+	}//end stand
+
+}//end SleepingTest
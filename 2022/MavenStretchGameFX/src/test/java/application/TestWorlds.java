@@ -0,0 +1,133 @@
+package application;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/** TestWorlds builds the headless Worlds the tests step, with hitboxes matching the game's pictures so no picture is ever loaded */
+class TestWorlds {
+
+	//Hitbox sizes of the pictures the real levels use
+	static final double TILE_SIZE = 100;	//Block.png
+	static final double CRATE_WIDTH = 225;	//Crate.png
+	static final double CRATE_HEIGHT = 169;
+	static final double ENEMY_WIDTH = 162;	//Eye.png
+	static final double ENEMY_HEIGHT = 164;
+
+	//TestWorlds is only used statically
+	private TestWorlds() {}
+
+	/** Loads one of the game's levels without starting it, so a test can set its modes first
+	 * @param levelNum The number of the level
+	 * */
+	//POST: Returns a World holding the level with a player that can't die, so a scripted run never ends early.
+	static World level(int levelNum) {
+		World world = new World();
+		try {
+			LevelLoader.load(levelNum, world, false);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The level " + levelNum + " couldn't be read!", e);
+		}
+		world.getPlayer().setHealth(Double.MAX_VALUE);
+		return world;
+	}//end level
+
+	/** Builds a walled floor of tiles with crates and enemies dropped along it and the player at the left end, without starting it
+	 * @param tiles The number of floor tiles
+	 * @param crates The number of crates
+	 * @param enemies The number of enemies
+	 * @param seed The seed crates and enemies are scattered with, the same seed always builds the same World
+	 * */
+	static World crates(int tiles, int crates, int enemies, long seed) {
+		Random random = new Random(seed);
+		World world = new World();
+		double floorWidth = tiles * TILE_SIZE;
+
+		world.addSurface(solid(-TILE_SIZE, -2000, TILE_SIZE, 2000 + TILE_SIZE));
+		world.addSurface(solid(floorWidth, -2000, TILE_SIZE, 2000 + TILE_SIZE));
+		for(int i = 0; i < tiles; i++)
+			world.addSurface(solid(i * TILE_SIZE, 0, TILE_SIZE, TILE_SIZE));
+
+		for(int i = 0; i < crates; i++) {
+			PhysicsSprite crate = new PhysicsSprite(1 + random.nextInt(2), .5);
+			crate.setBoundary(new Rectangle(0, 0, CRATE_WIDTH, CRATE_HEIGHT));
+			crate.setPosition(300 + random.nextDouble() * (floorWidth - 600), -CRATE_HEIGHT - random.nextDouble() * 400);
+			world.addSurface(crate);
+		}//end for
+
+		for(int i = 0; i < enemies; i++) {
+			Enemy enemy = new Enemy(1, .5, 200);
+			enemy.setBoundary(new Rectangle(0, 0, ENEMY_WIDTH, ENEMY_HEIGHT));
+			enemy.setPosition(300 + random.nextDouble() * (floorWidth - 600), -ENEMY_HEIGHT - random.nextDouble() * 400);
+			world.addSurface(enemy);
+		}//end for
+
+		PlayerObject player = new PlayerObject(1, .5, Double.MAX_VALUE);
+		player.setPosition(20, -player.getBoundaryHeight());
+		world.setPlayer(player);
+		return world;
+	}//end crates
+
+	/** Creates a solid, non-physics Sprite with the given hitbox */
+	static Sprite solid(double x, double y, double width, double height) {
+		Sprite sprite = new Sprite();
+		sprite.setBoundary(new Rectangle(0, 0, width, height));
+		sprite.setPosition(x, y);
+		sprite.setSolid(true);
+		return sprite;
+	}//end solid
+
+	/** The scripted input for a tick: runs right, jumps every so often, and changes size now and then */
+	static int inputs(long tick) {
+		int inputs = World.INPUT_RIGHT;
+		if(tick % 150 < 40) inputs = World.INPUT_LEFT;
+		if(tick % 90 == 0) inputs |= World.INPUT_JUMP;
+		if(tick % 700 == 350) inputs |= World.INPUT_SHRINK;
+		if(tick % 700 == 500) inputs |= World.INPUT_SHRINK;
+		return inputs;
+	}//end inputs
+
+	/** Steps a World with the scripted input
+	 * @param ticks How many ticks to step it
+	 * */
+	static void run(World world, int ticks) {
+		for(int i = 0; i < ticks; i++)
+			world.step(inputs(world.getTicks()));
+	}//end run
+
+	/** Steps two Worlds of the same scene side by side with the scripted input, failing on the first tick they differ
+	 * @param name What the scene is called in failure messages
+	 * @param expected The World stepped the reference way
+	 * @param actual The World stepped the way being checked
+	 * @param ticks How many ticks to step them
+	 * */
+	static void assertSameRun(String name, World expected, World actual, int ticks) {
+		for(int i = 0; i < ticks; i++) {
+			int inputs = inputs(expected.getTicks());
+			assertEquals(name + " status on tick " + i, expected.step(inputs), actual.step(inputs));
+			assertSameState(name + " on tick " + i, expected, actual);
+		}//end for
+	}//end assertSameRun
+
+	/** Checks that two Worlds of the same scene are in exactly the same state: every surface's position and velocity, the player, and the score */
+	static void assertSameState(String name, World expected, World actual) {
+		assertEquals(name + " score", expected.getLevelScore(), actual.getLevelScore(), 0);
+		assertEquals(name + " health", expected.getPlayer().getHealth(), actual.getPlayer().getHealth(), 0);
+		assertEquals(name + " collectibles", expected.getCollectibles().size(), actual.getCollectibles().size());
+
+		ArrayList<Sprite> want = expected.getSurfaces();
+		ArrayList<Sprite> got = actual.getSurfaces();
+		assertEquals(name + " surfaces", want.size(), got.size());
+		for(int i = 0; i < want.size(); i++) {
+			String sprite = name + " surface " + i + " ";
+			assertEquals(sprite + "x", want.get(i).getBoundaryX(), got.get(i).getBoundaryX(), 0);
+			assertEquals(sprite + "y", want.get(i).getBoundaryY(), got.get(i).getBoundaryY(), 0);
+			assertEquals(sprite + "width", want.get(i).getBoundaryWidth(), got.get(i).getBoundaryWidth(), 0);
+			assertEquals(sprite + "velocity x", want.get(i).getVelocityX(), got.get(i).getVelocityX(), 0);
+			assertEquals(sprite + "velocity y", want.get(i).getVelocityY(), got.get(i).getVelocityY(), 0);
+		}//end for
+	}//end assertSameState
+
+}//end TestWorlds
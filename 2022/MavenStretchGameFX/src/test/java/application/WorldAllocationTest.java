@@ -0,0 +1,79 @@
+package application;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks that a full physics tick allocates nothing once the World has warmed up, so stepping never feeds the garbage collector */
+public class WorldAllocationTest {
+
+	private static final int WARM_UP_TICKS = 3000; //Enough for every allocation-free path to be reached and compiled
+	private static final int WINDOWS = 6; //How many stretches of ticks are measured after the warm-up
+	private static final int WINDOW_TICKS = 400;
+
+	private com.sun.management.ThreadMXBean threads;
+
+	@Before
+	public void setUp() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+	}//end setUp
+
+	@Test
+	public void levelOneTickAllocatesNothing() {
+		World world = TestWorlds.level(1);
+		world.start();
+		assertEquals(0, this.allocatedBytes(world));
+	}//end levelOneTickAllocatesNothing
+
+	@Test
+	public void levelTwoTickAllocatesNothing() {
+		World world = TestWorlds.level(2);
+		world.start();
+		assertEquals(0, this.allocatedBytes(world));
+	}//end levelTwoTickAllocatesNothing
+
+	@Test
+	public void crateSceneTickAllocatesNothing() {
+		World world = TestWorlds.crates(400, 200, 20, 1);
+		world.start();
+		assertEquals(0, this.allocatedBytes(world));
+	}//end crateSceneTickAllocatesNothing
+
+	@Test
+	public void streamedTickAllocatesNothing() {
+		World world = TestWorlds.level(2);
+		world.setStreaming(1500, 2);
+		world.start();
+		assertEquals(0, this.allocatedBytes(world));
+	}//end streamedTickAllocatesNothing
+
+	//Steps a World through its warm-up, then returns the fewest bytes any one window of ticks allocated on this thread
+	//The JIT can still be recompiling (or deoptimizing what earlier tests left behind) during a window, and escape analysis
+	//is briefly lost while it does, so a single window can allocate even though the ticks don't. This checks that stepping
+	//settles into allocating nothing, a list that grows once would not be caught.
+	private long allocatedBytes(World world) {
+		long thread = Thread.currentThread().getId();
+		TestWorlds.run(world, WARM_UP_TICKS);
+
+		//The difference of two reads with nothing between them is what reading costs, it is taken off the measurement
+		long before = threads.getThreadAllocatedBytes(thread);
+		long overhead = threads.getThreadAllocatedBytes(thread) - before;
+
+		long fewest = Long.MAX_VALUE;
+		for(int window = 0; window < WINDOWS; window++) {
+			before = threads.getThreadAllocatedBytes(thread);
+			for(int i = 0; i < WINDOW_TICKS; i++)
+				world.step(TestWorlds.inputs(world.getTicks()));
+			fewest = Math.min(fewest, threads.getThreadAllocatedBytes(thread) - before - overhead);
+		}//end for
+		return fewest;
+	}//end allocatedBytes
+
+}//end WorldAllocationTest